@@ -0,0 +1,51 @@
+package com.example.ordermanagement.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Wiring helpers for benchmarks that exercise beans without starting the application context.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Stub a repository interface; calls to the named methods are answered with the given functions
+     * of their arguments, any other repository call fails the benchmark.
+     */
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    throw new UnsupportedOperationException("Not stubbed: " + type.getSimpleName() + "." + method.getName());
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Set a field normally injected by Spring ({@code @Value} or {@code @Autowired})
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ordermanagement.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart total and line subtotal arithmetic.
+ *
+ * {@code updateTotals} and {@code calculateSubtotal} run on long cents; {@code bigDecimalTotals}
+ * repeats the cart total the way it used to be computed, summing BigDecimal subtotals, as a baseline.
+ * {@code changeQuantity} alternates the quantity so every call recomputes the subtotal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"5", "50"})
+    private int itemCount;
+
+    private Cart cart;
+    private CartItem cartItem;
+    private int quantity = 1;
+
+    @Setup
+    public void setUp() {
+        Shop shop = new Shop();
+        shop.setId(1L);
+        cart = new Cart(new User());
+        for (int i = 0; i < itemCount; i++) {
+            MenuItem menuItem = new MenuItem("Item " + i, null, new BigDecimal("4.99").add(BigDecimal.valueOf(i)),
+                    MenuCategory.MAIN_COURSE, shop);
+            menuItem.setId((long) i + 1);
+            cart.addCartItem(new CartItem(cart, menuItem, 1 + i % 3));
+        }
+        cartItem = cart.getCartItems().get(0);
+    }
+
+    @Benchmark
+    public long updateTotals() {
+        cart.updateTotals();
+        return cart.getTotalCents();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotals() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getCartItems()) {
+            total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal calculateSubtotal() {
+        cartItem.calculateSubtotal();
+        return cartItem.getSubtotal();
+    }
+
+    @Benchmark
+    public BigDecimal changeQuantity() {
+        quantity = quantity == 1 ? 2 : 1;
+        cartItem.setQuantity(quantity);
+        return cartItem.getSubtotal();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ordermanagement.security;
+
+import com.example.ordermanagement.benchmark.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT validation with the verified-claims cache warm ({@code validateToken}) and with every call
+ * missing it ({@code validateTokenUncached}): that instance keeps a single cached entry while the
+ * benchmark cycles through distinct tokens, so each call verifies a signature.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha256Signing";
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = newJwtUtil(10000);
+        uncachedJwtUtil = newJwtUtil(1);
+        token = cachingJwtUtil.generateToken("customer", "ROLE_CUSTOMER", 42L);
+        cachingJwtUtil.validateToken(token);
+        tokens = new String[1024];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = uncachedJwtUtil.generateToken("customer" + i, "ROLE_CUSTOMER", (long) i);
+        }
+    }
+
+    private static JwtUtil newJwtUtil(int claimsCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        BenchmarkSupport.inject(jwtUtil, "secret", SECRET);
+        BenchmarkSupport.inject(jwtUtil, "expiration", 86400000L);
+        BenchmarkSupport.inject(jwtUtil, "claimsCacheSize", claimsCacheSize);
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return cachingJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        next = (next + 1) & (tokens.length - 1);
+        return uncachedJwtUtil.validateToken(tokens[next]);
+    }
+}
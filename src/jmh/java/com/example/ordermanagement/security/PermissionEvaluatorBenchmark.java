@@ -0,0 +1,185 @@
+package com.example.ordermanagement.security;
+
+import com.example.ordermanagement.OrderManagementApplication;
+import com.example.ordermanagement.benchmark.BenchmarkSupport;
+import com.example.ordermanagement.model.Role;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.PermissionRepository;
+import com.example.ordermanagement.repository.UserPermissionRepository;
+import com.example.ordermanagement.service.PermissionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission checks through the evaluator against a compiled permission bitset.
+ *
+ * The repositories are stubbed with 40 permissions of which the user holds every other one, so
+ * after the first call each check is an ordinal lookup and a bit test.
+ *
+ * The {@code repository*} benchmarks are the baseline the bitset replaced: one effective-grant query
+ * per check in a read-only transaction, against the seeded data of the H2 {@code test} profile. The
+ * {@code database*} benchmarks run the evaluator of that same application context on the same user
+ * and permissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionEvaluatorBenchmark {
+
+    private static final String[] RESOURCES = {"shops", "menu", "customers", "orders", "users",
+            "permissions", "reports", "carts", "uploads", "settings"};
+    private static final String[] ACTIONS = {"view", "create", "edit", "delete"};
+
+    private DynamicPermissionEvaluator evaluator;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> permissions = new ArrayList<>();
+        List<Object[]> grants = new ArrayList<>();
+        long id = 1;
+        for (String resource : RESOURCES) {
+            for (String action : ACTIONS) {
+                String name = (resource + "_" + action).toUpperCase();
+                permissions.add(new Object[] {id, name, resource, action});
+                if (id % 2 == 1) {
+                    grants.add(new Object[] {id, null});
+                }
+                id++;
+            }
+        }
+        PermissionRepository permissionRepository = BenchmarkSupport.stub(PermissionRepository.class,
+                Map.of("findActivePermissionKeys", args -> permissions));
+        UserPermissionRepository userPermissionRepository = BenchmarkSupport.stub(UserPermissionRepository.class,
+                Map.of("findEffectiveGrantsByUserId", args -> grants));
+
+        evaluator = new DynamicPermissionEvaluator();
+        BenchmarkSupport.inject(evaluator, "permissionCache",
+                new PermissionCache(userPermissionRepository, permissionRepository));
+        BenchmarkSupport.inject(evaluator, "meterRegistry", new SimpleMeterRegistry());
+
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("customer");
+        user.setRole(Role.CUSTOMER);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        private ConfigurableApplicationContext context;
+        private UserPermissionRepository userPermissionRepository;
+        private TransactionTemplate readOnly;
+        private DynamicPermissionEvaluator evaluator;
+        private Authentication authentication;
+        private Long userId;
+        private String granted;
+        private String denied;
+
+        @Setup
+        public void setUp() {
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                    .profiles("test")
+                    .web(WebApplicationType.NONE)
+                    .run("--logging.level.root=WARN", "--spring.jpa.show-sql=false");
+            userPermissionRepository = context.getBean(UserPermissionRepository.class);
+            readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            evaluator = context.getBean(DynamicPermissionEvaluator.class);
+
+            // A seeded grant of the shop owner, and a permission they do not hold
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Map<String, Object> grant = jdbcTemplate.queryForMap(
+                    "SELECT up.user_id, p.resource, p.action FROM user_permissions up " +
+                    "JOIN permissions p ON p.id = up.permission_id JOIN users u ON u.id = up.user_id " +
+                    "WHERE u.username = 'shopowner' AND up.is_active = true ORDER BY up.id LIMIT 1");
+            userId = ((Number) grant.get("USER_ID")).longValue();
+            granted = grant.get("RESOURCE") + ":" + grant.get("ACTION");
+            Map<String, Object> other = jdbcTemplate.queryForMap(
+                    "SELECT p.resource, p.action FROM permissions p WHERE p.id NOT IN " +
+                    "(SELECT permission_id FROM user_permissions WHERE user_id = ?) ORDER BY p.id LIMIT 1", userId);
+            denied = other.get("RESOURCE") + ":" + other.get("ACTION");
+
+            User user = new User();
+            user.setId(userId);
+            user.setUsername("shopowner");
+            user.setRole(Role.SHOP);
+            authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        }
+
+        private boolean query(String permission) {
+            String[] parts = permission.split(":");
+            return readOnly.execute(status -> userPermissionRepository
+                    .findEffectiveUserPermissionByResourceAndAction(userId, parts[0], parts[1], LocalDateTime.now())
+                    .isPresent());
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public boolean repositoryHasPermission(Database database) {
+        return database.query(database.granted);
+    }
+
+    @Benchmark
+    public boolean repositoryHasPermissionDenied(Database database) {
+        return database.query(database.denied);
+    }
+
+    @Benchmark
+    public boolean databaseHasPermission(Database database) {
+        return database.evaluator.hasPermission(database.authentication, null, database.granted);
+    }
+
+    @Benchmark
+    public boolean databaseHasPermissionDenied(Database database) {
+        return database.evaluator.hasPermission(database.authentication, null, database.denied);
+    }
+
+    @Benchmark
+    public boolean hasPermissionByResourceAction() {
+        return evaluator.hasPermission(authentication, null, "shops:view");
+    }
+
+    @Benchmark
+    public boolean hasPermissionByName() {
+        return evaluator.hasPermission(authentication, null, "MENU_VIEW");
+    }
+
+    @Benchmark
+    public boolean hasPermissionDenied() {
+        return evaluator.hasPermission(authentication, null, "shops:create");
+    }
+}
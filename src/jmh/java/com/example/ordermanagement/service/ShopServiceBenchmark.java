@@ -0,0 +1,145 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.OrderManagementApplication;
+import com.example.ordermanagement.config.QueryCounter;
+import com.example.ordermanagement.dto.ShopResponse;
+import com.example.ordermanagement.model.MenuCategory;
+import com.example.ordermanagement.model.MenuItem;
+import com.example.ordermanagement.model.Shop;
+import com.example.ordermanagement.model.ShopStatus;
+import com.example.ordermanagement.model.ShopType;
+import com.example.ordermanagement.repository.MenuItemRepository;
+import com.example.ordermanagement.repository.ShopRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shop listing pages against the H2 {@code test} profile, and shop owner username generation.
+ *
+ * For the listing benchmarks the application context is started once per page size with
+ * {@value Listing#SHOPS} shops of {@value Listing#ITEMS_PER_SHOP} menu items each. {@code getAllShops}
+ * is the whole listing path (page query, total count and the grouped menu count query);
+ * {@code convertToResponses} is the conversion of an already loaded page, i.e. the grouped count
+ * query plus mapping. The statements of one {@code getAllShops} call are counted with
+ * {@link QueryCounter} and printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        static final int SHOPS = 200;
+        static final int ITEMS_PER_SHOP = 10;
+
+        @Param({"10", "50", "200"})
+        private int pageSize;
+
+        private ConfigurableApplicationContext context;
+        private ShopService shopService;
+        private ShopService shopServiceTarget;
+        private PageRequest page;
+        private List<Shop> shops;
+
+        @Setup
+        public void setUp() {
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                    .profiles("test")
+                    .web(WebApplicationType.NONE)
+                    .run("--logging.level.root=WARN", "--spring.jpa.show-sql=false");
+            seed(context.getBean(ShopRepository.class), context.getBean(MenuItemRepository.class));
+
+            shopService = context.getBean(ShopService.class);
+            // The package-private conversion methods are not proxied
+            Object target = AopProxyUtils.getSingletonTarget(shopService);
+            shopServiceTarget = target != null ? (ShopService) target : shopService;
+
+            page = PageRequest.of(0, pageSize, Sort.by("id"));
+            shops = new ArrayList<>(context.getBean(ShopRepository.class).findAll(page).getContent());
+
+            QueryCounter.RequestQueries queries = QueryCounter.start();
+            try {
+                shopService.getAllShops(page);
+            } finally {
+                QueryCounter.stop();
+            }
+            System.out.printf("getAllShops, page size %d: %d SQL statements%n", pageSize, queries.getStatements());
+        }
+
+        private static void seed(ShopRepository shopRepository, MenuItemRepository menuItemRepository) {
+            List<Shop> shops = new ArrayList<>(SHOPS);
+            for (int i = 1; i <= SHOPS; i++) {
+                Shop shop = new Shop("Spice Garden " + i, "Priya Sharma", "bench-shop" + i + "@example.com", "9876543210",
+                        "Bengaluru", "Karnataka", "India", "560001", "North Indian food", ShopType.RESTAURANT);
+                shop.setAddress(i + " MG Road");
+                shop.setStatus(ShopStatus.ACTIVE);
+                shop.setKitchenCapacity(3);
+                shops.add(shop);
+            }
+            shopRepository.saveAll(shops);
+
+            List<MenuItem> items = new ArrayList<>(SHOPS * ITEMS_PER_SHOP);
+            for (Shop shop : shops) {
+                for (int i = 1; i <= ITEMS_PER_SHOP; i++) {
+                    MenuItem item = new MenuItem("Dish " + i, "House special", new BigDecimal("249.00"),
+                            MenuCategory.MAIN_COURSE, shop);
+                    item.setIsAvailable(i % 5 != 0);
+                    items.add(item);
+                }
+            }
+            menuItemRepository.saveAll(items);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Usernames {
+        private final ShopService shopService = new ShopService(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<ShopResponse> getAllShops(Listing listing) {
+        return listing.shopService.getAllShops(listing.page);
+    }
+
+    @Benchmark
+    public List<ShopResponse> convertToResponses(Listing listing) {
+        return listing.shopServiceTarget.convertToResponses(listing.shops);
+    }
+
+    @Benchmark
+    public String generateShopOwnerUsername(Usernames usernames) {
+        return usernames.shopService.generateShopOwnerUsername("Spice Garden & Grill!", "Priya Sharma-Iyer");
+    }
+}
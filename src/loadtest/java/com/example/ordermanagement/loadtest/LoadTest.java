@@ -0,0 +1,394 @@
+package com.example.ordermanagement.loadtest;
+
+import com.example.ordermanagement.OrderManagementApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end HTTP load test against the real application on the in-memory H2 ("test") profile.
+ *
+ * Boots the application on a random port, seeds shops, menu items and customer accounts, logs every
+ * account in, then drives a weighted mix of requests from a fixed number of client threads. After a
+ * warmup period, latencies are recorded per operation in HdrHistograms and reported as percentiles
+ * together with requests/sec. With {@code --rate} each thread sends on a fixed schedule and latency
+ * is measured from the intended send time, so a stalled server is not hidden by coordinated omission.
+ *
+ * The {@code /api} operations authenticate with the admin's JWT. The {@code /customer} pages only
+ * accept a session, so every seeded customer logs in through the login form and sends its session
+ * cookie. A run in which any request fails is reported as invalid and exits with status 1.
+ *
+ * Run with {@code mvn -P loadtest verify -Dloadtest.args="--threads=64 --mix=shops=50,cart=50"}.
+ */
+public class LoadTest {
+
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "admin123";
+    // Latencies are recorded in microseconds, up to one minute
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    // Keeps the body of failed responses only, so successful ones are not buffered
+    private static final HttpResponse.BodyHandler<String> ERROR_BODY = info ->
+            info.statusCode() >= 200 && info.statusCode() < 300
+                    ? HttpResponse.BodySubscribers.replacing("")
+                    : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+
+    private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+
+    private String adminToken;
+    private String[] userSessions;
+    private List<Long> menuItemIds;
+    private String imageUrl;
+
+    LoadTest(LoadTestOptions options, int port) {
+        this.options = options;
+        this.baseUrl = "http://localhost:" + port;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<Operation> weighted = new ArrayList<>();
+        options.getMix().forEach((operation, weight) -> {
+            recorders.put(operation, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("Load test: " + options);
+
+        // Devtools would restart the application in a new class loader and call main again with Spring's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Seeded uploads go to a directory of their own, removed after the run
+        Path uploadDir = Files.createTempDirectory("loadtest-uploads");
+        // Command line properties take precedence over application.yml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                     "--management.server.port=0",
+                     "--spring.threads.virtual.enabled=" + options.isVirtualThreads(),
+                     "--jwt.stateless=" + options.isStatelessJwt(),
+                     "--app.upload.zero-copy=" + options.isZeroCopyUploads(),
+                     "--app.upload.dir=" + uploadDir,
+                     "--spring.jpa.show-sql=false",
+                     "--logging.level.root=WARN",
+                     "--logging.level.org.springframework.web=WARN",
+                     "--logging.level.com.example.ordermanagement=WARN");
+        int exitCode = 0;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest loadTest = new LoadTest(options, port);
+            long seedStart = System.nanoTime();
+            LoadTestSeeder seeder = new LoadTestSeeder(context);
+            loadTest.menuItemIds = seeder.seed(options);
+            loadTest.imageUrl = seeder.seedImage();
+            System.out.printf("Seeded %d shops, %d menu items and %d users in %d ms%n", options.getShops(),
+                    loadTest.menuItemIds.size(), options.getUsers(), elapsedMillis(seedStart));
+            if (!loadTest.run()) {
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+            deleteRecursively(uploadDir);
+        }
+        System.exit(exitCode);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + directory + ": " + e.getMessage());
+        }
+    }
+
+    // False when a request failed, so the percentiles do not describe the operations
+    boolean run() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(options.getThreads());
+        try {
+            logIn(clients);
+
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < options.getThreads(); i++) {
+                int client = i;
+                workers.add(clients.submit(() -> drive(client, end)));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+            // Discard what was recorded during warmup
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+            firstErrors.clear();
+            long measureStart = System.nanoTime();
+
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return report(elapsedMillis(measureStart));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    // The admin gets a token for the API; the seeded customers are logged in up front, in parallel
+    private void logIn(ExecutorService clients) throws Exception {
+        long start = System.nanoTime();
+        adminToken = login(ADMIN_USERNAME, ADMIN_PASSWORD);
+        userSessions = new String[options.getUsers()];
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < userSessions.length; i++) {
+            int index = i;
+            logins.add(clients.submit(() -> {
+                userSessions[index] = formLogin(LoadTestSeeder.USERNAME_PREFIX + index, LoadTestSeeder.PASSWORD);
+                return null;
+            }));
+        }
+        for (Future<?> login : logins) {
+            login.get();
+        }
+        System.out.printf("Logged in %d users in %d ms%n", userSessions.length, elapsedMillis(start));
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(loginRequest(username, password),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    // Logs in through the login form like a browser; returns the session cookie
+    private String formLogin(String username, String password) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=" + password))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Form login of " + username + " failed with " + response.statusCode() +
+                    " (" + location + ")");
+        }
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                return cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length());
+            }
+        }
+        throw new IllegalStateException("Form login of " + username + " returned no session cookie");
+    }
+
+    // Each client thread acts for its own customers, like one browser per customer,
+    // so a checkout never empties a cart that another thread is filling
+    private void drive(int client, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intervalNanos = options.getRate() > 0 ? TimeUnit.SECONDS.toNanos(options.getThreads()) / options.getRate() : 0;
+        long nextSend = System.nanoTime();
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0 && nextSend > now) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(nextSend - now);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            // Closed-loop: time from the actual send; paced: from when the request should have gone out
+            long intendedStart = intervalNanos > 0 ? nextSend : System.nanoTime();
+            if (intendedStart >= end) {
+                return;
+            }
+            nextSend += intervalNanos;
+
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            int customers = (userSessions.length - client + options.getThreads() - 1) / options.getThreads();
+            String session = userSessions[client + options.getThreads() * random.nextInt(customers)];
+            try {
+                HttpRequest request = prepare(operation, session, random);
+                if (intervalNanos == 0) {
+                    intendedStart = System.nanoTime();
+                }
+                HttpResponse<String> response = httpClient.send(request, ERROR_BODY);
+                if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                    recordError(operation, "HTTP " + response.statusCode() + " " + abbreviate(response.body()));
+                }
+            } catch (IOException e) {
+                recordError(operation, e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            recorders.get(operation).recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+        }
+    }
+
+    private void recordError(Operation operation, String description) {
+        errors.get(operation).increment();
+        firstErrors.putIfAbsent(operation, description);
+    }
+
+    private static String abbreviate(String body) {
+        String text = body.replaceAll("\\s+", " ").trim();
+        return text.length() > 120 ? text.substring(0, 120) + "..." : text;
+    }
+
+    // Builds the measured request; checkout first fills the cart with an unmeasured add
+    private HttpRequest prepare(Operation operation, String session, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        switch (operation) {
+            case SHOPS:
+                return get("/api/shops?page=" + random.nextInt(Math.max(1, options.getShops() / 20)) + "&size=20", adminToken);
+            case CUSTOMERS:
+                return get("/api/customers", adminToken);
+            case LOGIN:
+                return loginRequest(LoadTestSeeder.USERNAME_PREFIX + random.nextInt(options.getUsers()), LoadTestSeeder.PASSWORD);
+            case CART:
+                return addToCart(session, random);
+            case DASHBOARD:
+                return customerRequest("/customer/dashboard", session).GET().build();
+            case CHECKOUT:
+                httpClient.send(addToCart(session, random), HttpResponse.BodyHandlers.discarding());
+                return customerRequest("/customer/checkout", session)
+                        .header("Idempotency-Key", UUID.randomUUID().toString())
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            case IMAGE:
+                return get(imageUrl, null);
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    private HttpRequest addToCart(String session, ThreadLocalRandom random) {
+        Long menuItemId = menuItemIds.get(random.nextInt(menuItemIds.size()));
+        String body = "{\"menuItemId\":" + menuItemId + ",\"quantity\":" + (1 + random.nextInt(3)) + "}";
+        return customerRequest("/customer/cart/add", session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // The customer pages are authenticated by the session of the form login, not by a token
+    private HttpRequest.Builder customerRequest(String path, String session) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Cookie", session);
+    }
+
+    private HttpRequest loginRequest(String username, String password) {
+        String body = "{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        return post("/auth/login", body, null).build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder post(String path, String json, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private boolean report(long elapsedMillis) {
+        double seconds = elapsedMillis / 1000.0;
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%nMeasured %.1f s with %d client threads%n", seconds, options.getThreads());
+        System.out.printf("%-26s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : recorders.keySet()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long operationErrors = errors.get(operation).sum();
+            printRow(operation.getLabel(), histogram, operationErrors, seconds);
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        printRow("Total", total, totalErrors, seconds);
+
+        if (totalErrors > 0) {
+            System.out.printf("%nINVALID RUN: %d requests failed; the latencies above include failed requests%n", totalErrors);
+            firstErrors.forEach((operation, error) -> System.out.printf("  %s: %s%n", operation.getLabel(), error));
+            return false;
+        }
+        return true;
+    }
+
+    private static void printRow(String label, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-26s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                label, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
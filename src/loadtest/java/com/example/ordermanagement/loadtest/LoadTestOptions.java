@@ -0,0 +1,109 @@
+package com.example.ordermanagement.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}; see {@link #usage()}.
+ */
+public class LoadTestOptions {
+
+    private int shops = 200;
+    private int itemsPerShop = 20;
+    private int users = 1000;
+    private int threads = 32;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 30;
+    // Total target rate in requests/sec; 0 runs closed-loop (every thread sends as fast as it can)
+    private int rate = 0;
+    private boolean virtualThreads = false;
+    private boolean statelessJwt = false;
+    private boolean zeroCopyUploads = true;
+    private Map<Operation, Integer> mix = parseMix("shops=20,customers=10,login=5,cart=35,dashboard=20,checkout=10");
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        // Maven passes all options as one argument, so split on whitespace as well
+        for (String arg : String.join(" ", args).trim().split("\\s+")) {
+            if (arg.isEmpty()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg + "\n" + usage());
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            switch (name) {
+                case "shops" -> options.shops = Integer.parseInt(value);
+                case "items-per-shop" -> options.itemsPerShop = Integer.parseInt(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "threads" -> options.threads = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "rate" -> options.rate = Integer.parseInt(value);
+                case "virtual-threads" -> options.virtualThreads = Boolean.parseBoolean(value);
+                case "stateless-jwt" -> options.statelessJwt = Boolean.parseBoolean(value);
+                case "zero-copy-uploads" -> options.zeroCopyUploads = Boolean.parseBoolean(value);
+                case "mix" -> options.mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + name + "\n" + usage());
+            }
+        }
+        if (options.shops < 1 || options.itemsPerShop < 1 || options.users < 1 || options.threads < 1) {
+            throw new IllegalArgumentException("shops, items-per-shop, users and threads must be positive");
+        }
+        if (options.users < options.threads) {
+            throw new IllegalArgumentException("users must be at least threads, every client thread needs its own customers");
+        }
+        return options;
+    }
+
+    // Weights per operation, e.g. "shops=20,cart=80"; operations left out are not sent
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty: " + value);
+        }
+        return weights;
+    }
+
+    public static String usage() {
+        return "Options (all optional):\n" +
+               "  --shops=200 --items-per-shop=20 --users=1000   data seeded before the run\n" +
+               "  --threads=32 --warmup=10 --duration=30         client threads and seconds\n" +
+               "  --rate=0                                       total requests/sec, 0 = as fast as possible\n" +
+               "  --mix=shops=20,customers=10,login=5,cart=35,dashboard=20,checkout=10  (also image=N)\n" +
+               "  --virtual-threads=false --stateless-jwt=false  server modes under test\n" +
+               "  --zero-copy-uploads=true                       false serves uploads with Spring's resource handler";
+    }
+
+    public int getShops() { return shops; }
+    public int getItemsPerShop() { return itemsPerShop; }
+    public int getUsers() { return users; }
+    public int getThreads() { return threads; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public int getRate() { return rate; }
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public boolean isStatelessJwt() { return statelessJwt; }
+    public boolean isZeroCopyUploads() { return zeroCopyUploads; }
+    public Map<Operation, Integer> getMix() { return mix; }
+
+    @Override
+    public String toString() {
+        return "shops=" + shops + ", itemsPerShop=" + itemsPerShop + ", users=" + users +
+               ", threads=" + threads + ", warmup=" + warmupSeconds + "s, duration=" + durationSeconds + "s" +
+               ", rate=" + (rate > 0 ? rate + "/s" : "closed-loop") +
+               ", virtualThreads=" + virtualThreads + ", statelessJwt=" + statelessJwt +
+               ", zeroCopyUploads=" + zeroCopyUploads + ", mix=" + mix;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.ordermanagement.loadtest;
+
+import com.example.ordermanagement.config.FileUploadConfig;
+import com.example.ordermanagement.model.Customer;
+import com.example.ordermanagement.model.MenuCategory;
+import com.example.ordermanagement.model.MenuItem;
+import com.example.ordermanagement.model.Role;
+import com.example.ordermanagement.model.Shop;
+import com.example.ordermanagement.model.ShopStatus;
+import com.example.ordermanagement.model.ShopType;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.CustomerRepository;
+import com.example.ordermanagement.repository.MenuItemRepository;
+import com.example.ordermanagement.repository.ShopRepository;
+import com.example.ordermanagement.repository.UserRepository;
+import com.example.ordermanagement.service.MenuItemService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the in-memory database of the booted application with load test data through its own
+ * repositories, in chunks, then reloads the menu catalog so the new items are served.
+ */
+public class LoadTestSeeder {
+
+    public static final String USERNAME_PREFIX = "loaduser";
+    public static final String PASSWORD = "load123";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int IMAGE_SIZE = 256 * 1024;
+    private static final String[] CITIES = {"Mumbai", "Delhi", "Bengaluru", "Hyderabad", "Chennai", "Pune", "Kolkata"};
+    private static final MenuCategory[] CATEGORIES = {MenuCategory.APPETIZER, MenuCategory.MAIN_COURSE, MenuCategory.DESSERT};
+
+    private final ShopRepository shopRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final MenuItemService menuItemService;
+    private final FileUploadConfig fileUploadConfig;
+    private final Random random = new Random(42);
+
+    public LoadTestSeeder(ApplicationContext context) {
+        this.shopRepository = context.getBean(ShopRepository.class);
+        this.menuItemRepository = context.getBean(MenuItemRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.customerRepository = context.getBean(CustomerRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.menuItemService = context.getBean(MenuItemService.class);
+        this.fileUploadConfig = context.getBean(FileUploadConfig.class);
+    }
+
+    /**
+     * Seed shops with their menus, customer accounts and customer records; returns the menu item IDs
+     */
+    public List<Long> seed(LoadTestOptions options) {
+        List<Long> menuItemIds = new ArrayList<>(options.getShops() * options.getItemsPerShop());
+        List<MenuItem> items = new ArrayList<>();
+        for (int from = 0; from < options.getShops(); from += CHUNK_SIZE) {
+            List<Shop> shops = new ArrayList<>();
+            for (int i = from; i < Math.min(options.getShops(), from + CHUNK_SIZE); i++) {
+                shops.add(newShop(i));
+            }
+            for (Shop shop : shopRepository.saveAll(shops)) {
+                for (int j = 0; j < options.getItemsPerShop(); j++) {
+                    items.add(newMenuItem(shop, j));
+                }
+                if (items.size() >= CHUNK_SIZE) {
+                    saveItems(items, menuItemIds);
+                }
+            }
+        }
+        saveItems(items, menuItemIds);
+
+        // Every account shares one password, so it is hashed once
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        for (int from = 0; from < options.getUsers(); from += CHUNK_SIZE) {
+            List<User> users = new ArrayList<>();
+            List<Customer> customers = new ArrayList<>();
+            for (int i = from; i < Math.min(options.getUsers(), from + CHUNK_SIZE); i++) {
+                users.add(newUser(i, passwordHash));
+                customers.add(newCustomer(i));
+            }
+            userRepository.saveAll(users);
+            customerRepository.saveAll(customers);
+        }
+
+        menuItemService.loadMenuCatalog();
+        return menuItemIds;
+    }
+
+    /**
+     * Write one upload to serve; returns its URL
+     */
+    public String seedImage() throws IOException {
+        Path directory = Paths.get(fileUploadConfig.getUploadDir(), "loadtest");
+        Files.createDirectories(directory);
+        // Only the bytes on the wire matter, not whether they decode
+        byte[] content = new byte[IMAGE_SIZE];
+        random.nextBytes(content);
+        Files.write(directory.resolve("load-image.jpg"), content);
+        return "/uploads/loadtest/load-image.jpg";
+    }
+
+    private void saveItems(List<MenuItem> items, List<Long> menuItemIds) {
+        for (MenuItem item : menuItemRepository.saveAll(items)) {
+            menuItemIds.add(item.getId());
+        }
+        items.clear();
+    }
+
+    private Shop newShop(int index) {
+        String city = CITIES[random.nextInt(CITIES.length)];
+        Shop shop = new Shop("Load Test Shop " + index, "Owner " + index, "loadshop" + index + "@example.com",
+                "9000000000", city, "State", "India", "400001", "Seeded for load testing", ShopType.RESTAURANT);
+        shop.setAddress(index + " Market Road, " + city);
+        shop.setStatus(ShopStatus.ACTIVE);
+        shop.setKitchenCapacity(1 + random.nextInt(4));
+        return shop;
+    }
+
+    private MenuItem newMenuItem(Shop shop, int index) {
+        BigDecimal price = BigDecimal.valueOf(199 + random.nextInt(1800), 2);
+        MenuItem item = new MenuItem("Dish " + index + " of " + shop.getShopName(), "Seeded item", price,
+                CATEGORIES[index % CATEGORIES.length], shop);
+        item.setIsVegetarian(random.nextBoolean());
+        item.setPreparationTimeMinutes(5 + random.nextInt(25));
+        return item;
+    }
+
+    private User newUser(int index, String passwordHash) {
+        User user = new User();
+        user.setUsername(USERNAME_PREFIX + index);
+        user.setEmail(USERNAME_PREFIX + index + "@example.com");
+        user.setPassword(passwordHash);
+        user.setFirstName("Load");
+        user.setLastName("User " + index);
+        user.setRole(Role.CUSTOMER);
+        user.setIsActive(true);
+        return user;
+    }
+
+    private Customer newCustomer(int index) {
+        Customer customer = new Customer();
+        customer.setFirstName("Load");
+        customer.setLastName("Customer " + index);
+        customer.setEmail("loadcustomer" + index + "@example.com");
+        customer.setDateOfBirth(LocalDate.of(1980 + index % 25, 1 + index % 12, 1 + index % 28));
+        customer.setCity(CITIES[random.nextInt(CITIES.length)]);
+        customer.setCountry("India");
+        return customer;
+    }
+}
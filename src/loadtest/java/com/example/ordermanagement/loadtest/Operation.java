@@ -0,0 +1,40 @@
+package com.example.ordermanagement.loadtest;
+
+/**
+ * Endpoints the load test can drive. API operations use the admin token, the customer pages the
+ * session of a random seeded customer.
+ */
+public enum Operation {
+    SHOPS("shops", "GET /api/shops"),
+    CUSTOMERS("customers", "GET /api/customers"),
+    LOGIN("login", "POST /auth/login"),
+    CART("cart", "POST /customer/cart/add"),
+    DASHBOARD("dashboard", "GET /customer/dashboard"),
+    CHECKOUT("checkout", "POST /customer/checkout"),
+    IMAGE("image", "GET /uploads (256 KB)");
+
+    private final String optionName;
+    private final String label;
+
+    Operation(String optionName, String label) {
+        this.optionName = optionName;
+        this.label = label;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.optionName.equalsIgnoreCase(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + name);
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.ordermanagement.config;
 
+import com.example.ordermanagement.model.ImageVariant;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.io.File;
+import java.io.IOException;
 
 @Configuration
 public class FileUploadConfig implements WebMvcConfigurer {
@@ -13,6 +17,10 @@ public class FileUploadConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    // Uploads are served by UploadController unless this is turned off
+    @Value("${app.upload.zero-copy:true}")
+    private boolean zeroCopy;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Create upload directory if it doesn't exist
@@ -21,9 +29,29 @@ public class FileUploadConfig implements WebMvcConfigurer {
             uploadDirectory.mkdirs();
         }
 
-        // Serve uploaded files
+        if (zeroCopy) {
+            return;
+        }
+
+        // Serve uploaded files; image variants fall back to their original until they are generated
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDirectory.getAbsolutePath() + "/");
+                .addResourceLocations("file:" + uploadDirectory.getAbsolutePath() + "/")
+                .resourceChain(false)
+                .addResolver(new VariantFallbackResolver());
+    }
+
+    private static class VariantFallbackResolver extends PathResourceResolver {
+        @Override
+        protected Resource getResource(String resourcePath, Resource location) throws IOException {
+            Resource resource = super.getResource(resourcePath, location);
+            if (resource == null) {
+                String original = ImageVariant.originalOf(resourcePath);
+                if (original != null) {
+                    return super.getResource(original, location);
+                }
+            }
+            return resource;
+        }
     }
 
     public String getUploadDir() {
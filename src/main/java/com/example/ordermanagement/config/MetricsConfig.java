@@ -0,0 +1,83 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.security.JwtUtil;
+import com.example.ordermanagement.service.ImageVariantService;
+import com.example.ordermanagement.service.UserEventHub;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics, scraped from /actuator/prometheus.
+ *
+ * Service classes annotated with {@code @Timed("app.service")} get a latency histogram per public
+ * method (tagged with class and method); the binders below expose the in-memory caches and limits
+ * that only keep plain counters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder jwtClaimsCacheMetrics(JwtUtil jwtUtil) {
+        return registry -> {
+            FunctionCounter.builder("app.jwt.claims.cache.requests", jwtUtil, JwtUtil::getClaimsCacheHits)
+                    .tag("result", "hit")
+                    .description("Token validations answered from the verified-claims cache")
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.claims.cache.requests", jwtUtil, JwtUtil::getClaimsCacheMisses)
+                    .tag("result", "miss")
+                    .description("Token validations that verified the signature")
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.claims.cache.evictions", jwtUtil, JwtUtil::getClaimsCacheEvictions)
+                    .register(registry);
+            Gauge.builder("app.jwt.claims.cache.size", jwtUtil, JwtUtil::getClaimsCacheSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder eventStreamMetrics(UserEventHub userEventHub) {
+        return registry -> Gauge.builder("app.events.connections", userEventHub, UserEventHub::getConnectionCount)
+                .description("Open Server-Sent Event streams")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder imageVariantMetrics(ImageVariantService imageVariantService) {
+        return registry -> {
+            FunctionCounter.builder("app.images.variants", imageVariantService, ImageVariantService::getGeneratedCount)
+                    .tag("result", "generated")
+                    .register(registry);
+            FunctionCounter.builder("app.images.variants", imageVariantService, ImageVariantService::getFailedCount)
+                    .tag("result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("app.images.variants", imageVariantService, ImageVariantService::getRejectedCount)
+                    .tag("result", "rejected")
+                    .register(registry);
+            FunctionCounter.builder("app.images.variants", imageVariantService, ImageVariantService::getOversizedCount)
+                    .tag("result", "oversized")
+                    .register(registry);
+            Gauge.builder("app.images.queue.size", imageVariantService, ImageVariantService::getQueueSize)
+                    .register(registry);
+        };
+    }
+
+    // The limiter only exists with virtual threads enabled
+    @Bean
+    public MeterBinder requestLimiterMetrics(ObjectProvider<RequestConcurrencyLimiter> limiter) {
+        return registry -> limiter.ifAvailable(available ->
+                Gauge.builder("app.requests.permits.available", available, RequestConcurrencyLimiter::getAvailablePermits)
+                        .description("Free request slots under virtual threads")
+                        .register(registry));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ordermanagement.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts and times the SQL statements Hibernate issues on the current thread while a request is
+ * being counted (see {@link QueryStatsFilter}).
+ *
+ * Registered as the session factory's statement inspector, which sees every statement once as it is
+ * prepared, and as an automatic session event listener, which brackets each JDBC execution. Statements
+ * sent through JdbcTemplate bypass Hibernate and are not counted. Outside a counted request both
+ * hooks are a single thread-local read.
+ */
+public class QueryCounter implements StatementInspector, SessionEventListener {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start counting for the current thread
+     */
+    public static RequestQueries start() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    /**
+     * Stop counting for the current thread
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            queries.statements++;
+            queries.statementCounts.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executionEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executionEnd();
+    }
+
+    private static void executionStart() {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            queries.executionStartedAt = System.nanoTime();
+        }
+    }
+
+    private static void executionEnd() {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null && queries.executionStartedAt != 0) {
+            queries.dbNanos += System.nanoTime() - queries.executionStartedAt;
+            queries.executionStartedAt = 0;
+        }
+    }
+
+    /**
+     * Statements of one request; only touched by the thread handling it
+     */
+    public static class RequestQueries {
+        private int statements;
+        private long dbNanos;
+        private long executionStartedAt;
+        private final Map<String, Integer> statementCounts = new HashMap<>();
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getDbNanos() {
+            return dbNanos;
+        }
+
+        /**
+         * The statement sent most often, the usual sign of an N+1 pattern (null when none was sent)
+         */
+        public Map.Entry<String, Integer> getMostRepeated() {
+            Map.Entry<String, Integer> most = null;
+            for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+                if (most == null || entry.getValue() > most.getValue()) {
+                    most = entry;
+                }
+            }
+            return most;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ordermanagement.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Hooks {@link QueryCounter} into Hibernate outside the prod profile
+ */
+@Configuration
+@Profile("!prod")
+public class QueryStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+            // Instantiated by Hibernate for every session
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryCounter.class.getName());
+        };
+    }
+}
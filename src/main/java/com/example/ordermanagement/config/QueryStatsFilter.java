@@ -0,0 +1,252 @@
+package com.example.ordermanagement.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-request SQL statement counts and database time, outside the prod profile.
+ *
+ * Every request gets {@code X-Query-Count} and {@code X-Query-Time-Ms} response headers, plus
+ * {@code X-Query-Budget-Exceeded} when it ran more statements than its endpoint's budget. Headers are
+ * written when the response body starts, so statements issued while a template renders count toward
+ * the per-endpoint totals but not the headers. Requests over budget are logged with the statement
+ * they repeated most, which is usually the N+1 culprit. The totals are also published as
+ * {@code app.query.*} meters tagged with the endpoint.
+ */
+@Component
+@Profile("!prod")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private static final String[] UNCOUNTED_PATHS = {"/css/", "/js/", "/images/", "/uploads/", "/favicon.ico",
+            "/actuator/"};
+
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final int repeatThreshold;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, EndpointQueryStats> endpoints = new ConcurrentHashMap<>();
+
+    public QueryStatsFilter(@Value("${app.query-stats.default-budget:20}") int defaultBudget,
+                            @Value("${app.query-stats.budgets:}") String budgets,
+                            @Value("${app.query-stats.repeat-threshold:5}") int repeatThreshold,
+                            MeterRegistry meterRegistry) {
+        this.defaultBudget = defaultBudget;
+        this.budgets = parseBudgets(budgets);
+        this.repeatThreshold = repeatThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // "GET /admin/dashboard=30,GET /shops/{id}=10"
+    private static Map<String, Integer> parseBudgets(String value) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : value.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                parsed.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+        return parsed;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String prefix : UNCOUNTED_PATHS) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.RequestQueries queries = QueryCounter.start();
+        try {
+            filterChain.doFilter(request, new HeaderWritingResponse(request, response, queries));
+        } finally {
+            QueryCounter.stop();
+            record(request, queries);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.RequestQueries queries) {
+        String endpoint = endpointOf(request);
+        int budget = budgetOf(endpoint);
+        boolean overBudget = queries.getStatements() > budget;
+        endpoints.computeIfAbsent(endpoint, key -> register(key, new EndpointQueryStats(budget)))
+                .record(queries.getStatements(), queries.getDbNanos(), overBudget);
+
+        if (overBudget) {
+            Map.Entry<String, Integer> repeated = queries.getMostRepeated();
+            if (repeated != null && repeated.getValue() >= repeatThreshold) {
+                logger.warn("Possible N+1 in {}: {} statements (budget {}), {} times: {}", endpoint,
+                        queries.getStatements(), budget, repeated.getValue(), abbreviate(repeated.getKey()));
+            } else {
+                logger.warn("Query budget exceeded in {}: {} statements (budget {})", endpoint,
+                        queries.getStatements(), budget);
+            }
+        }
+    }
+
+    private EndpointQueryStats register(String endpoint, EndpointQueryStats stats) {
+        Tags tags = Tags.of("endpoint", endpoint);
+        FunctionTimer.builder("app.query.db", stats, EndpointQueryStats::getRequests,
+                        EndpointQueryStats::getDbNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Database time per request")
+                .register(meterRegistry);
+        FunctionCounter.builder("app.query.statements", stats, EndpointQueryStats::getStatements)
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("app.query.over.budget", stats, EndpointQueryStats::getOverBudget)
+                .tags(tags)
+                .register(meterRegistry);
+        return stats;
+    }
+
+    // Method plus the matched handler pattern, so /shops/1 and /shops/2 share an entry
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+
+    private int budgetOf(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
+    }
+
+    /**
+     * Totals per endpoint since startup
+     */
+    public Map<String, EndpointQueryStats> getEndpointStats() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    public static class EndpointQueryStats {
+        private final int budget;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder dbNanos = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        EndpointQueryStats(int budget) {
+            this.budget = budget;
+        }
+
+        void record(int requestStatements, long requestDbNanos, boolean requestOverBudget) {
+            requests.increment();
+            statements.add(requestStatements);
+            dbNanos.add(requestDbNanos);
+            maxStatements.accumulate(requestStatements);
+            if (requestOverBudget) {
+                overBudget.increment();
+            }
+        }
+
+        public int getBudget() { return budget; }
+        public long getRequests() { return requests.sum(); }
+        public long getStatements() { return statements.sum(); }
+        public long getMaxStatements() { return maxStatements.get(); }
+        public long getDbTimeMillis() { return TimeUnit.NANOSECONDS.toMillis(dbNanos.sum()); }
+        long getDbNanos() { return dbNanos.sum(); }
+        public long getOverBudget() { return overBudget.sum(); }
+    }
+
+    // Adds the query headers just before the response body or status is sent
+    private class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final QueryCounter.RequestQueries queries;
+        private boolean headersWritten;
+
+        HeaderWritingResponse(HttpServletRequest request, HttpServletResponse response,
+                              QueryCounter.RequestQueries queries) {
+            super(response);
+            this.request = request;
+            this.queries = queries;
+        }
+
+        private void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader("X-Query-Count", String.valueOf(queries.getStatements()));
+            setHeader("X-Query-Time-Ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(queries.getDbNanos())));
+            if (queries.getStatements() > budgetOf(endpointOf(request))) {
+                setHeader("X-Query-Budget-Exceeded", "true");
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ordermanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of requests executing at once when requests run on virtual threads.
+ *
+ * With platform threads, Tomcat's worker pool caps concurrency; with virtual threads every accepted
+ * request runs immediately, and thousands of them would queue on the Hikari pool until they hit its
+ * connection timeout. This filter admits at most {@code maximum-pool-size * requests-per-connection}
+ * requests and lets the rest wait briefly for a permit, answering 503 when none frees up in time.
+ * Static resources are not limited.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class RequestConcurrencyLimiter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestConcurrencyLimiter.class);
+
+    private static final String[] UNLIMITED_PATHS = {"/css/", "/js/", "/images/", "/uploads/", "/favicon.ico"};
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    public RequestConcurrencyLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                     @Value("${app.concurrency.requests-per-connection:2}") int requestsPerConnection,
+                                     @Value("${app.concurrency.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+        int maxConcurrent = Math.max(1, poolSize * requestsPerConnection);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        logger.info("Virtual threads enabled: limiting concurrent requests to {}", maxConcurrent);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String prefix : UNLIMITED_PATHS) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, please retry");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,516 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.model.MenuCategory;
+import com.example.ordermanagement.model.Role;
+import com.example.ordermanagement.model.ShopStatus;
+import com.example.ordermanagement.model.ShopType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk synthetic data for capacity testing, enabled with {@code app.seed.enabled=true}.
+ *
+ * Generates customers, customer accounts, shops with their menus and carts with realistic skew:
+ * cities follow a Zipf-like distribution, menu sizes and prices are log-normal around per-shop and
+ * per-category medians, and cart lines favour a popular head of the menu. Rows are written with JDBC
+ * batches on several connections at once, one transaction per chunk; on PostgreSQL, keep
+ * {@code reWriteBatchedInserts=true} on the JDBC URL so each batch becomes multi-row INSERTs.
+ *
+ * Generated values are a pure function of {@code app.seed.random-seed} and the row number, so a
+ * cart's lines can be recomputed for its line rows instead of being held in memory. Seeding runs
+ * once startup data initialization has finished and before the menu catalog is loaded.
+ */
+@Component
+@ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true")
+public class SyntheticDataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customers (first_name, last_name, email, date_of_birth, phone_number, city, state, country, " +
+            "pincode, registration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, first_name, last_name, role, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SHOP_SQL =
+            "INSERT INTO shops (shop_name, owner_name, email, phone_number, city, state, country, pincode, address, " +
+            "description, kitchen_capacity, shop_type, status, registration_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MENU_ITEM_SQL =
+            "INSERT INTO menu_items (shop_id, item_name, description, price, category, is_available, is_vegetarian, " +
+            "is_vegan, preparation_time_minutes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CART_SQL =
+            "INSERT INTO carts (user_id, total_amount, total_items, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CART_ITEM_SQL =
+            "INSERT INTO cart_items (cart_id, menu_item_id, quantity, unit_price, subtotal, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // City, state and relative share of customers and shops (roughly metro population)
+    private static final String[][] CITIES = {
+            {"Mumbai", "Maharashtra"}, {"Delhi", "Delhi"}, {"Bengaluru", "Karnataka"}, {"Hyderabad", "Telangana"},
+            {"Ahmedabad", "Gujarat"}, {"Chennai", "Tamil Nadu"}, {"Kolkata", "West Bengal"}, {"Pune", "Maharashtra"},
+            {"Jaipur", "Rajasthan"}, {"Lucknow", "Uttar Pradesh"}, {"Kanpur", "Uttar Pradesh"}, {"Nagpur", "Maharashtra"},
+            {"Indore", "Madhya Pradesh"}, {"Bhopal", "Madhya Pradesh"}, {"Patna", "Bihar"}, {"Vadodara", "Gujarat"},
+            {"Ludhiana", "Punjab"}, {"Agra", "Uttar Pradesh"}, {"Nashik", "Maharashtra"}, {"Kochi", "Kerala"}};
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh",
+            "Ananya", "Diya", "Saanvi", "Aadhya", "Isha", "Kavya", "Priya", "Rohan", "Neha", "Rahul", "Sneha",
+            "Karan", "Pooja", "Amit", "Anjali", "Vikram", "Meera"};
+
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Patel", "Reddy", "Iyer", "Nair", "Gupta",
+            "Singh", "Kumar", "Das", "Mehta", "Joshi", "Rao", "Chatterjee", "Banerjee", "Kapoor", "Malhotra", "Shah"};
+
+    private static final String[] DISH_WORDS = {"Paneer", "Masala", "Tikka", "Biryani", "Dosa", "Curry", "Tandoori",
+            "Butter", "Garlic", "Spicy", "Classic", "Special", "Chef's", "Royal", "Crispy", "Smoky"};
+
+    private static final Weighted<ShopType> SHOP_TYPES = new Weighted<>(
+            new ShopType[] {ShopType.RESTAURANT, ShopType.FAST_FOOD, ShopType.CAFE, ShopType.BAKERY, ShopType.OTHER},
+            new double[] {50, 20, 15, 10, 5});
+
+    private static final Weighted<ShopStatus> SHOP_STATUSES = new Weighted<>(
+            new ShopStatus[] {ShopStatus.ACTIVE, ShopStatus.PENDING, ShopStatus.SUSPENDED, ShopStatus.INACTIVE},
+            new double[] {85, 8, 2, 5});
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    private final long customers;
+    private final long users;
+    private final int shops;
+    private final int menuItemsPerShop;
+    private final long carts;
+    private final int batchSize;
+    private final int threads;
+    private final long randomSeed;
+    private final String password;
+
+    private final Weighted<String[]> cities;
+    private final LocalDateTime now = LocalDateTime.now();
+    // Keeps emails and usernames unique when seeding the same database again
+    private final String runTag = Long.toString(System.currentTimeMillis(), 36);
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               PasswordEncoder passwordEncoder,
+                               @Value("${app.seed.customers:1000000}") long customers,
+                               @Value("${app.seed.users:100000}") long users,
+                               @Value("${app.seed.shops:10000}") int shops,
+                               @Value("${app.seed.menu-items-per-shop:25}") int menuItemsPerShop,
+                               @Value("${app.seed.carts:50000}") long carts,
+                               @Value("${app.seed.batch-size:1000}") int batchSize,
+                               @Value("${app.seed.threads:4}") int threads,
+                               @Value("${app.seed.random-seed:42}") long randomSeed,
+                               @Value("${app.seed.password:seed123}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.customers = customers;
+        this.users = users;
+        this.shops = shops;
+        this.menuItemsPerShop = Math.max(1, menuItemsPerShop);
+        this.carts = Math.min(carts, users);
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+        this.randomSeed = randomSeed;
+        this.password = password;
+
+        double[] cityWeights = new double[CITIES.length];
+        for (int i = 0; i < cityWeights.length; i++) {
+            cityWeights[i] = 1.0 / Math.pow(i + 1, 1.1);
+        }
+        this.cities = new Weighted<>(CITIES, cityWeights);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void seed() throws Exception {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            insertCustomers(executor);
+            long[] userIds = insertUsers(executor);
+            long[] shopIds = insertShops(executor);
+            MenuItems menuItems = insertMenuItems(executor, shopIds);
+            insertCarts(executor, userIds, menuItems);
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Synthetic data seeded in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void insertCustomers(ExecutorService executor) throws Exception {
+        writeRows(executor, "customers", INSERT_CUSTOMER_SQL, customers, (ps, row) -> {
+            SplittableRandom random = random(1, row);
+            String[] city = cities.pick(random);
+            String firstName = pick(FIRST_NAMES, random);
+            String lastName = pick(LAST_NAMES, random);
+            LocalDateTime registeredAt = pastDateTime(random, 3 * 365);
+            ps.setString(1, firstName);
+            ps.setString(2, lastName);
+            ps.setString(3, "customer." + runTag + "." + row + "@example.com");
+            ps.setDate(4, Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(random.nextInt(45 * 365))));
+            ps.setString(5, phoneNumber(random));
+            ps.setString(6, city[0]);
+            ps.setString(7, city[1]);
+            ps.setString(8, "India");
+            ps.setString(9, String.valueOf(110000 + random.nextInt(800000)));
+            ps.setDate(10, Date.valueOf(registeredAt.toLocalDate()));
+            ps.setTimestamp(11, Timestamp.valueOf(registeredAt));
+            ps.setTimestamp(12, Timestamp.valueOf(registeredAt));
+        });
+    }
+
+    private long[] insertUsers(ExecutorService executor) throws Exception {
+        long firstId = maxId("users") + 1;
+        // Every account shares one password, so it is hashed once
+        String passwordHash = passwordEncoder.encode(password);
+        writeRows(executor, "users", INSERT_USER_SQL, users, (ps, row) -> {
+            SplittableRandom random = random(2, row);
+            LocalDateTime createdAt = pastDateTime(random, 2 * 365);
+            ps.setString(1, "user_" + runTag + "_" + row);
+            ps.setString(2, "user." + runTag + "." + row + "@example.com");
+            ps.setString(3, passwordHash);
+            ps.setString(4, pick(FIRST_NAMES, random));
+            ps.setString(5, pick(LAST_NAMES, random));
+            ps.setString(6, Role.CUSTOMER.name());
+            ps.setBoolean(7, random.nextInt(100) < 97);
+            ps.setTimestamp(8, Timestamp.valueOf(createdAt));
+            ps.setTimestamp(9, Timestamp.valueOf(createdAt));
+        });
+        return readIds("users", firstId);
+    }
+
+    private long[] insertShops(ExecutorService executor) throws Exception {
+        long firstId = maxId("shops") + 1;
+        writeRows(executor, "shops", INSERT_SHOP_SQL, shops, (ps, row) -> {
+            SplittableRandom random = random(3, row);
+            String[] city = cities.pick(random);
+            ShopType shopType = SHOP_TYPES.pick(random);
+            String owner = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+            LocalDateTime registeredAt = pastDateTime(random, 5 * 365);
+            ps.setString(1, pick(LAST_NAMES, random) + "'s " + shopType.getDisplayName() + " " + row);
+            ps.setString(2, owner);
+            ps.setString(3, "shop." + runTag + "." + row + "@example.com");
+            ps.setString(4, phoneNumber(random));
+            ps.setString(5, city[0]);
+            ps.setString(6, city[1]);
+            ps.setString(7, "India");
+            ps.setString(8, String.valueOf(110000 + random.nextInt(800000)));
+            ps.setString(9, (1 + random.nextInt(300)) + " " + pick(DISH_WORDS, random) + " Street, " + city[0]);
+            ps.setString(10, "Serving " + city[0] + " since " + registeredAt.getYear());
+            ps.setInt(11, 1 + (int) Math.min(9, Math.abs(random.nextGaussian()) * 3));
+            ps.setString(12, shopType.name());
+            ps.setString(13, SHOP_STATUSES.pick(random).name());
+            ps.setTimestamp(14, Timestamp.valueOf(registeredAt));
+            ps.setTimestamp(15, Timestamp.valueOf(registeredAt));
+            ps.setTimestamp(16, Timestamp.valueOf(registeredAt));
+        });
+        return readIds("shops", firstId);
+    }
+
+    // Menu sizes vary per shop, so items are written per chunk of shops rather than per row number
+    private MenuItems insertMenuItems(ExecutorService executor, long[] shopIds) throws Exception {
+        long firstId = maxId("menu_items") + 1;
+        MenuCategory[] categories = MenuCategory.values();
+        LongAdder written = new LongAdder();
+        long start = System.nanoTime();
+        int shopsPerChunk = Math.max(1, batchSize * 10 / menuItemsPerShop);
+
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < shopIds.length; from += shopsPerChunk) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(shopIds.length, from + shopsPerChunk);
+            chunks.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> batch = new ArrayList<>(batchSize);
+                for (int shop = chunkFrom; shop < chunkTo; shop++) {
+                    SplittableRandom random = random(4, shop);
+                    int size = logNormal(random, menuItemsPerShop, 0.6, 3, menuItemsPerShop * 10);
+                    LocalDateTime createdAt = pastDateTime(random, 365);
+                    for (int item = 0; item < size; item++) {
+                        MenuCategory category = categories[random.nextInt(categories.length)];
+                        boolean vegan = random.nextInt(100) < 10;
+                        batch.add(new Object[] {shopIds[shop],
+                                pick(DISH_WORDS, random) + " " + category.getDisplayName() + " " + (item + 1),
+                                "House " + category.getDisplayName().toLowerCase(),
+                                BigDecimal.valueOf(priceCents(random, category), 2),
+                                category.name(), random.nextInt(100) < 92, vegan || random.nextInt(100) < 40, vegan,
+                                5 + (int) Math.min(55, Math.abs(random.nextGaussian()) * 12),
+                                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt)});
+                        if (batch.size() == batchSize) {
+                            jdbcTemplate.batchUpdate(INSERT_MENU_ITEM_SQL, batch);
+                            written.add(batch.size());
+                            batch.clear();
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_MENU_ITEM_SQL, batch);
+                    written.add(batch.size());
+                }
+            })));
+        }
+        await(chunks);
+        logRate("menu_items", written.sum(), start);
+
+        MenuItems menuItems = new MenuItems();
+        jdbcTemplate.query("SELECT id, price FROM menu_items WHERE id >= ? AND is_available = true ORDER BY id",
+                rs -> {
+                    menuItems.add(rs.getLong(1), rs.getBigDecimal(2).movePointRight(2).longValue());
+                }, firstId);
+        return menuItems;
+    }
+
+    // Carts and their lines derive from the same per-user random sequence, so totals always match the lines
+    private void insertCarts(ExecutorService executor, long[] userIds, MenuItems menuItems) throws Exception {
+        if (carts == 0 || userIds.length == 0 || menuItems.size == 0) {
+            return;
+        }
+        long[] cartUserIds = Arrays.copyOf(userIds, userIds.length);
+        SplittableRandom shuffle = new SplittableRandom(randomSeed);
+        for (int i = cartUserIds.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            long swap = cartUserIds[i];
+            cartUserIds[i] = cartUserIds[j];
+            cartUserIds[j] = swap;
+        }
+        int cartCount = (int) Math.min(carts, cartUserIds.length);
+
+        long firstCartId = maxId("carts") + 1;
+        Timestamp createdAt = Timestamp.valueOf(now);
+        writeRows(executor, "carts", INSERT_CART_SQL, cartCount, (ps, row) -> {
+            long userId = cartUserIds[(int) row];
+            long[] lines = cartLines(userId, menuItems);
+            long totalCents = 0;
+            int totalItems = 0;
+            for (int i = 0; i < lines.length; i += 2) {
+                totalCents += menuItems.cents[(int) lines[i]] * lines[i + 1];
+                totalItems += (int) lines[i + 1];
+            }
+            ps.setLong(1, userId);
+            ps.setBigDecimal(2, BigDecimal.valueOf(totalCents, 2));
+            ps.setInt(3, totalItems);
+            ps.setTimestamp(4, createdAt);
+            ps.setTimestamp(5, createdAt);
+        });
+
+        List<long[]> cartRows = jdbcTemplate.query("SELECT id, user_id FROM carts WHERE id >= ? ORDER BY id",
+                (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)}, firstCartId);
+        LongAdder written = new LongAdder();
+        long start = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        int cartsPerChunk = Math.max(1, batchSize * 4);
+        for (int from = 0; from < cartRows.size(); from += cartsPerChunk) {
+            List<long[]> chunk = cartRows.subList(from, Math.min(cartRows.size(), from + cartsPerChunk));
+            chunks.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> batch = new ArrayList<>(batchSize);
+                for (long[] cart : chunk) {
+                    long[] lines = cartLines(cart[1], menuItems);
+                    for (int i = 0; i < lines.length; i += 2) {
+                        long unitCents = menuItems.cents[(int) lines[i]];
+                        batch.add(new Object[] {cart[0], menuItems.ids[(int) lines[i]], (int) lines[i + 1],
+                                BigDecimal.valueOf(unitCents, 2),
+                                BigDecimal.valueOf(unitCents * lines[i + 1], 2), createdAt, createdAt});
+                    }
+                    if (batch.size() >= batchSize) {
+                        jdbcTemplate.batchUpdate(INSERT_CART_ITEM_SQL, batch);
+                        written.add(batch.size());
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_CART_ITEM_SQL, batch);
+                    written.add(batch.size());
+                }
+            })));
+        }
+        await(chunks);
+        logRate("cart_items", written.sum(), start);
+    }
+
+    // Pairs of (menu item index, quantity); 1-6 distinct lines skewed towards the first (popular) items
+    private long[] cartLines(long userId, MenuItems menuItems) {
+        SplittableRandom random = random(5, userId);
+        int lineCount = (int) Math.min(menuItems.size, 1 + Math.min(5, (long) (-Math.log(1 - random.nextDouble()) * 1.5)));
+        long[] lines = new long[lineCount * 2];
+        for (int line = 0; line < lineCount; line++) {
+            int index;
+            boolean duplicate;
+            do {
+                index = (int) (menuItems.size * Math.pow(random.nextDouble(), 3));
+                duplicate = false;
+                for (int i = 0; i < line; i++) {
+                    duplicate |= lines[i * 2] == index;
+                }
+            } while (duplicate);
+            lines[line * 2] = index;
+            lines[line * 2 + 1] = random.nextInt(100) < 70 ? 1 : 2 + random.nextInt(3);
+        }
+        return lines;
+    }
+
+    /**
+     * Write {@code rows} rows numbered 0..rows-1 in chunks of ten batches, each chunk in its own transaction
+     */
+    private void writeRows(ExecutorService executor, String table, String sql, long rows, RowWriter writer) throws Exception {
+        long start = System.nanoTime();
+        long chunkRows = (long) batchSize * 10;
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < rows; from += chunkRows) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(rows, from + chunkRows);
+            chunks.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (long batchFrom = chunkFrom; batchFrom < chunkTo; batchFrom += batchSize) {
+                    long offset = batchFrom;
+                    int size = (int) Math.min(batchSize, chunkTo - batchFrom);
+                    jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            writer.write(ps, offset + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+                }
+            })));
+        }
+        await(chunks);
+        logRate(table, rows, start);
+    }
+
+    private static void await(List<Future<?>> chunks) throws Exception {
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    private long[] readIds(String table, long firstId) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id >= ? ORDER BY id", Long.class, firstId)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void logRate(String table, long rows, long startNanos) {
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        logger.info("Seeded {} rows into {} in {} ms ({} rows/s)", rows, table, millis, rows * 1000 / millis);
+    }
+
+    // Independent, reproducible sequence per table and row
+    private SplittableRandom random(int table, long row) {
+        return new SplittableRandom(randomSeed * 1_000_003L + table * 0x9E3779B97F4A7C15L + row);
+    }
+
+    private LocalDateTime pastDateTime(SplittableRandom random, int maxDays) {
+        return now.minusMinutes(random.nextLong((long) maxDays * 24 * 60));
+    }
+
+    private static int logNormal(SplittableRandom random, double median, double sigma, int min, int max) {
+        long value = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    // Log-normal around a per-category median, rounded to a price ending in 9
+    private static long priceCents(SplittableRandom random, MenuCategory category) {
+        long median;
+        switch (category) {
+            case BEVERAGE, SNACK, DESSERT -> median = 12_000;
+            case APPETIZER, SOUP, SALAD, BREAKFAST, SANDWICH -> median = 18_000;
+            case SEAFOOD, DINNER, PIZZA -> median = 42_000;
+            default -> median = 28_000;
+        }
+        long cents = logNormal(random, median, 0.45, 2_000, 500_000);
+        return cents / 1000 * 1000 + 900;
+    }
+
+    private static String phoneNumber(SplittableRandom random) {
+        return String.valueOf(6_000_000_000L + random.nextLong(4_000_000_000L));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, long row) throws SQLException;
+    }
+
+    // Sampling from a fixed discrete distribution by binary search over cumulative weights
+    private static class Weighted<T> {
+        private final T[] values;
+        private final double[] cumulative;
+
+        Weighted(T[] values, double[] weights) {
+            this.values = values;
+            this.cumulative = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+        }
+
+        T pick(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return values[Math.min(values.length - 1, index >= 0 ? index : -index - 1)];
+        }
+    }
+
+    // IDs and prices of the seeded available menu items, in ID order
+    private static class MenuItems {
+        private long[] ids = new long[1024];
+        private long[] cents = new long[1024];
+        private int size;
+
+        void add(long id, long priceCents) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            ids[size] = id;
+            cents[size] = priceCents;
+            size++;
+        }
+    }
+}
@@ -25,16 +25,11 @@ public class AdminController {
     // Admin dashboard
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
-        UserService.UserStats stats = userService.getUserStats();
-        model.addAttribute("stats", stats);
+        // User counts in one query
+        model.addAttribute("stats", userService.getUserStats());
         
         // Get recent users (last 5)
-        List<User> recentUsers = userService.getAllUsers()
-            .stream()
-            .sorted((u1, u2) -> u2.getCreatedAt().compareTo(u1.getCreatedAt()))
-            .limit(5)
-            .toList();
-        model.addAttribute("recentUsers", recentUsers);
+        model.addAttribute("recentUsers", userService.getRecentUsers());
         
         return "admin/dashboard";
     }
@@ -1,20 +1,29 @@
 package com.example.ordermanagement.controller;
 
-import com.example.ordermanagement.model.Cart;
-import com.example.ordermanagement.model.CartItem;
+import com.example.ordermanagement.dto.CartItemResponse;
+import com.example.ordermanagement.dto.CartResponse;
+import com.example.ordermanagement.dto.MenuFeedResponse;
+import com.example.ordermanagement.dto.MenuItemResponse;
+import com.example.ordermanagement.model.MenuCategory;
 import com.example.ordermanagement.model.MenuItem;
+import com.example.ordermanagement.model.Order;
 import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.service.CartService;
 import com.example.ordermanagement.service.MenuItemService;
+import com.example.ordermanagement.service.OrderService;
+import com.example.ordermanagement.service.UserEventHub;
 import com.example.ordermanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +40,12 @@ public class CustomerDashboardController {
     
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserEventHub userEventHub;
 
     // Customer Dashboard for logged-in customers
     @GetMapping("/dashboard")
@@ -40,15 +55,15 @@ public class CustomerDashboardController {
             String username = authentication.getName();
             User user = userService.findByUsername(username);
             
-            // Get all available menu items
-            List<MenuItem> menuItems = menuItemService.getAllAvailableMenuItems();
+            // Get all available menu items from the in-memory catalog snapshot
+            List<MenuItemResponse> menuItems = menuItemService.getAvailableCatalogItems();
             
             // Get customer's cart
-            Cart cart = cartService.getOrCreateCart(user);
-            List<CartItem> cartItems = cart.getCartItems();
+            CartResponse cart = cartService.getOrCreateCart(user);
+            List<CartItemResponse> cartItems = cart.getCartItems();
             
-            // Calculate cart statistics
-            int totalCartItems = cartItems.stream().mapToInt(CartItem::getQuantity).sum();
+            // Cart statistics are maintained by the cart store
+            int totalCartItems = cart.getTotalItems();
             BigDecimal cartTotal = cart.getTotalAmount();
             
             // Add attributes to model
@@ -56,7 +71,7 @@ public class CustomerDashboardController {
             model.addAttribute("cartItems", cartItems);
             model.addAttribute("cartTotal", cartTotal != null ? "$" + cartTotal.toString() : "$0.00");
             model.addAttribute("totalCartItems", totalCartItems);
-            model.addAttribute("totalOrders", 0); // TODO: Implement order counting
+            model.addAttribute("totalOrders", orderService.countOrdersByUser(user));
             
             return "customer/dashboard";
         } catch (Exception e) {
@@ -65,6 +80,26 @@ public class CustomerDashboardController {
         }
     }
 
+    // Menu feed for customers: keyset-paginated JSON, so page N costs the same as page 1
+    @GetMapping("/menu/feed")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> getMenuFeed(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @RequestParam(required = false) MenuCategory category,
+                                         @RequestParam(required = false) Boolean vegetarian,
+                                         @RequestParam(required = false) Boolean vegan,
+                                         @RequestParam(required = false) BigDecimal minPrice,
+                                         @RequestParam(required = false) BigDecimal maxPrice) {
+        try {
+            MenuFeedResponse feed = menuItemService.getMenuFeed(cursor, size, category,
+                                                                vegetarian, vegan, minPrice, maxPrice);
+            return ResponseEntity.ok(feed);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Cart Management Endpoints
     @PostMapping("/cart/add")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -86,17 +121,18 @@ public class CustomerDashboardController {
         }
     }
 
+    // Cart lines are identified by menu item ID (the "id" returned by /cart/data)
     @PostMapping("/cart/update/{cartItemId}")
     @PreAuthorize("hasRole('CUSTOMER')")
     @ResponseBody
-    public ResponseEntity<?> updateCartQuantity(@PathVariable Long cartItemId, 
+    public ResponseEntity<?> updateCartQuantity(@PathVariable("cartItemId") Long menuItemId, 
                                               @RequestBody Map<String, Object> request, 
                                               Authentication authentication) {
         try {
             String username = authentication.getName();
             User user = userService.findByUsername(username);
             Integer quantity = Integer.valueOf(request.get("quantity").toString());
-            cartService.updateCartItemQuantity(user, cartItemId, quantity);
+            cartService.updateCartItemQuantity(user, menuItemId, quantity);
             
             return ResponseEntity.ok().body(Map.of("success", true, "message", "Cart updated"));
         } catch (Exception e) {
@@ -107,11 +143,11 @@ public class CustomerDashboardController {
     @PostMapping("/cart/remove/{cartItemId}")
     @PreAuthorize("hasRole('CUSTOMER')")
     @ResponseBody
-    public ResponseEntity<?> removeFromCart(@PathVariable Long cartItemId, Authentication authentication) {
+    public ResponseEntity<?> removeFromCart(@PathVariable("cartItemId") Long menuItemId, Authentication authentication) {
         try {
             String username = authentication.getName();
             User user = userService.findByUsername(username);
-            cartService.removeItemFromCart(user, cartItemId);
+            cartService.removeItemFromCart(user, menuItemId);
             
             return ResponseEntity.ok().body(Map.of("success", true, "message", "Item removed from cart"));
         } catch (Exception e) {
@@ -142,9 +178,9 @@ public class CustomerDashboardController {
         try {
             String username = authentication.getName();
             User user = userService.findByUsername(username);
-            Cart cart = cartService.getOrCreateCart(user);
+            CartResponse cart = cartService.getOrCreateCart(user);
             
-            int totalItems = cart.getCartItems().stream().mapToInt(CartItem::getQuantity).sum();
+            int totalItems = cart.getTotalItems();
             BigDecimal totalAmount = cart.getTotalAmount();
             
             return ResponseEntity.ok().body(Map.of(
@@ -157,6 +193,20 @@ public class CustomerDashboardController {
         }
     }
 
+    // Server-Sent Events stream of cart and order changes; starts with the current cart
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @ResponseBody
+    public SseEmitter streamEvents(Authentication authentication) throws IOException {
+        String username = authentication.getName();
+        User user = userService.findByUsername(username);
+        
+        SseEmitter emitter = userEventHub.subscribe(user.getId());
+        CartResponse cart = cartService.getOrCreateCart(user);
+        emitter.send(SseEmitter.event().name("cart").data(cartService.toCartData(cart)));
+        return emitter;
+    }
+
     @GetMapping("/cart/data")
     @PreAuthorize("hasRole('CUSTOMER')")
     @ResponseBody
@@ -164,43 +214,43 @@ public class CustomerDashboardController {
         try {
             String username = authentication.getName();
             User user = userService.findByUsername(username);
-            Cart cart = cartService.getOrCreateCart(user);
-            
-            List<CartItem> cartItems = cart.getCartItems();
-            int totalItems = cartItems.stream().mapToInt(CartItem::getQuantity).sum();
-            BigDecimal totalAmount = cart.getTotalAmount();
-            
-            // Create cart items data for frontend
-            List<Map<String, Object>> cartItemsData = cartItems.stream().map(item -> {
-                Map<String, Object> itemData = new java.util.HashMap<>();
-                itemData.put("id", item.getId());
-                itemData.put("menuItemId", item.getMenuItem().getId());
-                itemData.put("itemName", item.getMenuItem().getItemName());
-                itemData.put("imageUrl", item.getMenuItem().getImageUrl() != null ? item.getMenuItem().getImageUrl() : "/images/default-food.jpg");
-                itemData.put("unitPrice", item.getMenuItem().getPrice().toString());
-                itemData.put("formattedUnitPrice", "$" + item.getMenuItem().getPrice().toString());
-                itemData.put("quantity", item.getQuantity());
-                itemData.put("subtotal", item.getSubtotal().toString());
-                itemData.put("formattedSubtotal", "$" + item.getSubtotal().toString());
-                return itemData;
-            }).toList();
+            CartResponse cart = cartService.getOrCreateCart(user);
             
-            return ResponseEntity.ok().body(Map.of(
-                "cartItems", cartItemsData,
-                "totalItems", totalItems,
-                "totalAmount", totalAmount != null ? totalAmount.toString() : "0.00",
-                "formattedTotal", totalAmount != null ? "$" + totalAmount.toString() : "$0.00",
-                "isEmpty", cartItems.isEmpty()
-            ));
+            return ResponseEntity.ok().body(cartService.toCartData(cart));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Checkout is placed from the dashboard cart; keep the old link working
     @GetMapping("/checkout")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public String checkout(Model model, Authentication authentication) {
-        // TODO: Implement checkout functionality
-        return "customer/checkout";
+    public String checkout() {
+        return "redirect:/customer/dashboard";
+    }
+
+    @PostMapping("/checkout")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @ResponseBody
+    public ResponseEntity<?> placeOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                        Authentication authentication) {
+        try {
+            String username = authentication.getName();
+            User user = userService.findByUsername(username);
+            
+            // Retries carrying the same key return the original order
+            Order order = orderService.placeOrder(user, idempotencyKey);
+            
+            return ResponseEntity.ok().body(Map.of(
+                "success", true,
+                "message", "Order placed",
+                "orderId", order.getId(),
+                "totalItems", order.getTotalItems(),
+                "totalAmount", order.getTotalAmount().toString(),
+                "formattedTotal", order.getFormattedTotal()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 }
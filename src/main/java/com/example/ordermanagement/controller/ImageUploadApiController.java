@@ -0,0 +1,68 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.model.ImageVariant;
+import com.example.ordermanagement.service.FileUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming image upload for shop and menu images.
+ *
+ * The request body is the raw image (any content type; the format is detected from its leading
+ * bytes), read straight from the connection into the upload store without multipart parsing or
+ * spooling. The returned URL is then set as the {@code imageUrl} of a shop or menu item.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class ImageUploadApiController {
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    /**
+     * Upload an image
+     */
+    @PostMapping("/images")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SHOP')")
+    public ResponseEntity<Map<String, Object>> uploadImage(HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        // Refuse a declared oversize body before reading any of it
+        if (request.getContentLengthLong() > fileUploadService.getMaxImageBytes()) {
+            return tooLarge(response);
+        }
+        try (InputStream body = request.getInputStream()) {
+            String imageUrl = fileUploadService.storeImage(body);
+            response.put("imageUrl", imageUrl);
+            response.put("thumbnailUrl", ImageVariant.THUMBNAIL.urlFor(imageUrl));
+            response.put("cardUrl", ImageVariant.CARD.urlFor(imageUrl));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (MaxUploadSizeExceededException e) {
+            return tooLarge(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Invalid image");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("error", "Failed to store image");
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> tooLarge(Map<String, Object> response) {
+        response.put("error", "Image too large");
+        response.put("message", "Images may be at most " + fileUploadService.getMaxImageBytes() + " bytes");
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+}
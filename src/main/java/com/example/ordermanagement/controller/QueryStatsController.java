@@ -0,0 +1,51 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.config.QueryStatsFilter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Profile("!prod")
+@RequestMapping("/admin/query-stats")
+@PreAuthorize("hasRole('ADMIN')")
+public class QueryStatsController {
+
+    private final QueryStatsFilter queryStatsFilter;
+
+    public QueryStatsController(QueryStatsFilter queryStatsFilter) {
+        this.queryStatsFilter = queryStatsFilter;
+    }
+
+    /**
+     * SQL statements and database time per endpoint, most statements per request first
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getQueryStats() {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        queryStatsFilter.getEndpointStats().forEach((endpoint, stats) -> {
+            long requests = stats.getRequests();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("endpoint", endpoint);
+            entry.put("requests", requests);
+            entry.put("statements", stats.getStatements());
+            entry.put("avgStatements", requests > 0 ? (double) stats.getStatements() / requests : 0.0);
+            entry.put("maxStatements", stats.getMaxStatements());
+            entry.put("budget", stats.getBudget());
+            entry.put("overBudget", stats.getOverBudget());
+            entry.put("dbTimeMs", stats.getDbTimeMillis());
+            endpoints.add(entry);
+        });
+        endpoints.sort(Comparator.comparingDouble((Map<String, Object> entry) -> (Double) entry.get("avgStatements")).reversed());
+        return ResponseEntity.ok(endpoints);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ordermanagement.dto.ShopRequest;
 import com.example.ordermanagement.dto.ShopResponse;
 import com.example.ordermanagement.model.ShopStatus;
 import com.example.ordermanagement.model.ShopType;
+import com.example.ordermanagement.service.ShopService;
 import com.example.ordermanagement.service.ShopServiceInterface;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -293,27 +294,12 @@ public class ShopApiController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getShopStatistics() {
         try {
+            // Totals, status and type counts come from one grouped query
+            ShopService.ShopStats shopStats = shopService.getShopStats();
             Map<String, Object> stats = new HashMap<>();
-            
-            // Get total shops
-            long totalShops = shopService.getTotalShops();
-            stats.put("totalShops", totalShops);
-            
-            // Get shops by status
-            Map<ShopStatus, Long> shopsByStatus = new HashMap<>();
-            for (ShopStatus status : ShopStatus.values()) {
-                long count = shopService.getShopCountByStatus(status);
-                shopsByStatus.put(status, count);
-            }
-            stats.put("shopsByStatus", shopsByStatus);
-            
-            // Get shops by type
-            Map<ShopType, Long> shopsByType = new HashMap<>();
-            for (ShopType type : ShopType.values()) {
-                long count = shopService.getShopCountByType(type);
-                shopsByType.put(type, count);
-            }
-            stats.put("shopsByType", shopsByType);
+            stats.put("totalShops", shopStats.getTotalShops());
+            stats.put("shopsByStatus", shopStats.getShopsByStatus());
+            stats.put("shopsByType", shopStats.getShopsByType());
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -8,9 +8,12 @@ import com.example.ordermanagement.model.ShopType;
 import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.service.FileUploadService;
 import com.example.ordermanagement.service.ShopServiceInterface;
+import com.example.ordermanagement.service.MenuImportService;
 import com.example.ordermanagement.service.MenuItemService;
+import com.example.ordermanagement.service.OrderService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,8 +31,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/shops")
@@ -43,9 +49,15 @@ public class ShopController {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuImportService menuImportService;
+
     @Autowired
     private FileUploadService fileUploadService;
 
+    @Autowired
+    private OrderService orderService;
+
     /**
      * Working shop list endpoint - bypasses template parsing issues
      */
@@ -129,7 +141,9 @@ public class ShopController {
     @GetMapping("/new")
     @PreAuthorize("hasPermission(null, 'shops:create')")
     public String showShopForm(Model model) {
-        model.addAttribute("shopRequest", new ShopRequest());
+        ShopRequest shopRequest = new ShopRequest();
+        shopRequest.setKitchenCapacity(1);
+        model.addAttribute("shopRequest", shopRequest);
         model.addAttribute("shopTypes", ShopType.values());
         model.addAttribute("isEdit", false);
         return "shops/form";
@@ -155,7 +169,7 @@ public class ShopController {
         try {
             // Handle image upload if provided
             if (imageFile != null && !imageFile.isEmpty()) {
-                String imageUrl = fileUploadService.uploadFile(imageFile, "shop-images");
+                String imageUrl = fileUploadService.uploadFile(imageFile);
                 shopRequest.setImageUrl(imageUrl);
             }
             
@@ -215,6 +229,7 @@ public class ShopController {
             shopRequest.setShopType(shop.getShopType());
             shopRequest.setDescription(shop.getDescription());
             shopRequest.setImageUrl(shop.getImageUrl());
+            shopRequest.setKitchenCapacity(shop.getKitchenCapacity());
             
             model.addAttribute("shopRequest", shopRequest);
             model.addAttribute("shopTypes", ShopType.values());
@@ -254,19 +269,20 @@ public class ShopController {
 
         try {
             // Handle image upload if provided
+            String replacedImageUrl = null;
             if (imageFile != null && !imageFile.isEmpty()) {
                 // Get existing shop to check for old image
-                ShopResponse existingShop = shopService.getShopById(id);
-                if (existingShop.getImageUrl() != null) {
-                    // Delete old image
-                    fileUploadService.deleteFile(existingShop.getImageUrl());
-                }
+                replacedImageUrl = shopService.getShopById(id).getImageUrl();
                 
-                String imageUrl = fileUploadService.uploadFile(imageFile, "shop-images");
+                String imageUrl = fileUploadService.uploadFile(imageFile);
                 shopRequest.setImageUrl(imageUrl);
             }
             
             ShopResponse updatedShop = shopService.updateShop(id, shopRequest);
+            // The old image is only released once the shop no longer points at it
+            if (replacedImageUrl != null && !replacedImageUrl.equals(updatedShop.getImageUrl())) {
+                fileUploadService.deleteFile(replacedImageUrl);
+            }
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Shop '" + updatedShop.getShopName() + "' has been successfully updated!");
             return "redirect:/shops/" + id;
@@ -359,6 +375,9 @@ public class ShopController {
             model.addAttribute("totalOrders", 0); // Placeholder
             model.addAttribute("totalRevenue", "$0.00"); // Placeholder
             
+            // Open orders with estimated ready times from the in-memory kitchen queue
+            model.addAttribute("kitchenQueue", orderService.getKitchenQueue(shop.getId()));
+            
             return "shop/dashboard";
         } catch (Exception e) {
             logger.error("Error loading shop dashboard for user: {}", authentication.getName(), e);
@@ -372,6 +391,22 @@ public class ShopController {
         }
     }
 
+    /**
+     * Live kitchen queue of the current user's shop (polled by the dashboard)
+     */
+    @GetMapping("/dashboard/kitchen")
+    @PreAuthorize("hasPermission(null, 'dashboard:shop')")
+    @ResponseBody
+    public ResponseEntity<?> kitchenQueue(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            ShopResponse shop = shopService.getShopByOwnerUserId(currentUser.getId());
+            return ResponseEntity.ok(orderService.getKitchenQueue(shop.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Search shops by location
      */
@@ -479,7 +514,7 @@ public class ShopController {
             // Handle image upload if provided
             if (imageFile != null && !imageFile.isEmpty()) {
                 try {
-                    String imageUrl = fileUploadService.uploadFile(imageFile, "menu-items");
+                    String imageUrl = fileUploadService.uploadFile(imageFile);
                     menuItemRequest.setImageUrl(imageUrl);
                 } catch (Exception e) {
                     logger.error("Error uploading image", e);
@@ -502,6 +537,59 @@ public class ShopController {
         return "redirect:/shops/dashboard";
     }
 
+    /**
+     * Bulk import menu items from a CSV or NDJSON file - only for current user's shop.
+     * The file is sent as the "file" part of a form or as the raw request body.
+     */
+    @PostMapping("/menu-items/import")
+    @PreAuthorize("hasPermission(null, 'menu-items:create')")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> importMenuItems(@RequestParam(value = "file", required = false) MultipartFile file,
+                                                               @RequestParam(value = "format", required = false) String format,
+                                                               HttpServletRequest request,
+                                                               Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+
+            // Check if current user owns a shop
+            if (!shopService.userOwnsShop(currentUser.getId())) {
+                response.put("error", "You don't have a shop associated with your account");
+                return ResponseEntity.badRequest().body(response);
+            }
+            ShopResponse shop = shopService.getShopByOwnerUserId(currentUser.getId());
+
+            MenuImportService.Format importFormat = file != null
+                    ? MenuImportService.Format.detect(format, file.getContentType(), file.getOriginalFilename())
+                    : MenuImportService.Format.detect(format, request.getContentType(), null);
+            MenuImportService.ImportResult result;
+            try (InputStream input = file != null ? file.getInputStream() : request.getInputStream()) {
+                result = menuImportService.importMenuItems(shop.getId(), input, importFormat);
+            }
+
+            response.put("imported", result.getImported());
+            response.put("rejected", result.getRejected());
+            response.put("errors", result.getErrors());
+            response.put("errorsTruncated", result.isErrorsTruncated());
+            if (!result.isComplete()) {
+                // The rows before the failure are saved; the counts tell the client how far it got
+                response.put("error", "Import stopped before the end of the file");
+                response.put("message", result.getFailure());
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Invalid import file");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error importing menu items for user: {}", authentication.getName(), e);
+            response.put("error", "Error importing menu items");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Toggle menu item availability - only for current user's shop
      */
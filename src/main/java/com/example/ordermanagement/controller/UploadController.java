@@ -0,0 +1,255 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.config.FileUploadConfig;
+import com.example.ordermanagement.model.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves uploaded files from {@code app.upload.dir} without copying them through the JVM heap.
+ *
+ * On Tomcat the file is handed to the connector's sendfile support; elsewhere it is streamed with
+ * {@link FileChannel#transferTo}. Uploads never change once written (new content gets a new name), so
+ * responses carry a strong ETag derived from a hash of the content (taken from the name of a content
+ * addressed blob, computed and cached for anything else) and may be cached for a year. An
+ * image variant that has not been generated yet is answered with its original and must be revalidated.
+ * Supports {@code If-None-Match} and single {@code Range} requests (with {@code If-Range}).
+ *
+ * Set {@code app.upload.zero-copy=false} to serve uploads through Spring's resource handler instead.
+ */
+@Controller
+@ConditionalOnProperty(name = "app.upload.zero-copy", havingValue = "true", matchIfMissing = true)
+public class UploadController {
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, no-cache";
+    private static final int MAX_CACHED_TAGS = 10000;
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path uploadRoot;
+    // Content hash per file, revalidated against size and modification time
+    private final ConcurrentHashMap<Path, FileTag> tags = new ConcurrentHashMap<>();
+
+    public UploadController(FileUploadConfig fileUploadConfig) {
+        this.uploadRoot = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String relativePath = path.length() > UPLOADS_PREFIX.length()
+                ? UriUtils.decode(path.substring(UPLOADS_PREFIX.length()), StandardCharsets.UTF_8) : "";
+
+        boolean fallback = false;
+        Path file = resolve(relativePath);
+        if (file == null) {
+            String original = ImageVariant.originalOf(relativePath);
+            file = original != null ? resolve(original) : null;
+            fallback = true;
+        }
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        String etag = tagOf(file, length).etag;
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? REVALIDATE : IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0 || RequestMethod.HEAD.name().equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the file straight from the page cache after this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // The regular file under the upload root, or null; anything escaping the root is treated as missing
+    private Path resolve(String relativePath) {
+        if (relativePath.isEmpty()) {
+            return null;
+        }
+        Path file = uploadRoot.resolve(relativePath).normalize();
+        if (!file.startsWith(uploadRoot) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    private FileTag tagOf(Path file, long length) throws IOException {
+        // Blobs of the upload store are named after the SHA-256 of their content; their variants
+        // ("<hash>.jpg.thumb.jpg") share that prefix but not the bytes, so they are hashed like any other file
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        if (dot == 64 && file.startsWith(uploadRoot.resolve("blobs")) && ImageVariant.originalOf(name) == null) {
+            return new FileTag(length, 0, "\"" + name.substring(0, 32) + "\"");
+        }
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        FileTag tag = tags.get(file);
+        if (tag != null && tag.length == length && tag.lastModified == lastModified) {
+            return tag;
+        }
+        tag = new FileTag(length, lastModified, hash(file));
+        if (tags.size() >= MAX_CACHED_TAGS) {
+            tags.clear();
+        }
+        tags.put(file, tag);
+        return tag;
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        // 128 bits of the hash are plenty to tell versions of one file apart
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bounds of a single "bytes=" range: {start, end} inclusive, an empty array to ignore the header
+     * (other units, multiple ranges or malformed values are answered with the whole file), or null when
+     * the range lies outside the file
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                return suffix <= 0 ? null : new long[] {Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || end < start) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static class FileTag {
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+
+        FileTag(long length, long lastModified, String etag) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+    }
+}
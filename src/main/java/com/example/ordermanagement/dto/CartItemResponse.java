@@ -0,0 +1,103 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.model.ImageVariant;
+
+import java.math.BigDecimal;
+
+/**
+ * Cart line as held by the in-memory cart store. Lines are identified by their
+ * menu item ID, which is unique within a cart, so {@link #getId()} returns it.
+ */
+public class CartItemResponse {
+    
+    private Long menuItemId;
+    private String itemName;
+    private String imageUrl;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal subtotal;
+    
+    // Constructors
+    public CartItemResponse() {}
+    
+    public CartItemResponse(Long menuItemId, String itemName, String imageUrl,
+                            BigDecimal unitPrice, Integer quantity, BigDecimal subtotal) {
+        this.menuItemId = menuItemId;
+        this.itemName = itemName;
+        this.imageUrl = imageUrl;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.subtotal = subtotal;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return menuItemId;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    // Downscaled copies of the image for lists and cards (see ImageVariant)
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMBNAIL.urlFor(imageUrl);
+    }
+    
+    public String getCardUrl() {
+        return ImageVariant.CARD.urlFor(imageUrl);
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    // Helper methods
+    public String getFormattedUnitPrice() {
+        return "$" + unitPrice.toString();
+    }
+    
+    public String getFormattedSubtotal() {
+        return "$" + subtotal.toString();
+    }
+}
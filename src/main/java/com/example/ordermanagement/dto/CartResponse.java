@@ -0,0 +1,75 @@
+package com.example.ordermanagement.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartResponse {
+    
+    private Long cartId;
+    private Long userId;
+    private List<CartItemResponse> cartItems;
+    private Integer totalItems;
+    private BigDecimal totalAmount;
+    
+    // Constructors
+    public CartResponse() {}
+    
+    public CartResponse(Long cartId, Long userId, List<CartItemResponse> cartItems,
+                        Integer totalItems, BigDecimal totalAmount) {
+        this.cartId = cartId;
+        this.userId = userId;
+        this.cartItems = cartItems;
+        this.totalItems = totalItems;
+        this.totalAmount = totalAmount;
+    }
+    
+    // Getters and Setters
+    public Long getCartId() {
+        return cartId;
+    }
+    
+    public void setCartId(Long cartId) {
+        this.cartId = cartId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public List<CartItemResponse> getCartItems() {
+        return cartItems;
+    }
+    
+    public void setCartItems(List<CartItemResponse> cartItems) {
+        this.cartItems = cartItems;
+    }
+    
+    public Integer getTotalItems() {
+        return totalItems;
+    }
+    
+    public void setTotalItems(Integer totalItems) {
+        this.totalItems = totalItems;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    // Helper methods
+    public boolean isEmpty() {
+        return cartItems == null || cartItems.isEmpty();
+    }
+    
+    public String getFormattedTotal() {
+        return "$" + totalAmount.toString();
+    }
+}
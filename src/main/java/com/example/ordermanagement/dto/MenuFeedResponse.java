@@ -0,0 +1,44 @@
+package com.example.ordermanagement.dto;
+
+import java.util.List;
+
+public class MenuFeedResponse {
+
+    private List<MenuItemResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public MenuFeedResponse() {}
+
+    public MenuFeedResponse(List<MenuItemResponse> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<MenuItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MenuItemResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ordermanagement.dto;
 
+import com.example.ordermanagement.model.ImageVariant;
 import com.example.ordermanagement.model.MenuCategory;
 
 import java.math.BigDecimal;
@@ -126,6 +127,15 @@ public class MenuItemResponse {
         this.imageUrl = imageUrl;
     }
     
+    // Downscaled copies of the image for lists and cards (see ImageVariant)
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMBNAIL.urlFor(imageUrl);
+    }
+    
+    public String getCardUrl() {
+        return ImageVariant.CARD.urlFor(imageUrl);
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
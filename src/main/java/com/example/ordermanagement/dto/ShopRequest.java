@@ -45,6 +45,11 @@ public class ShopRequest {
     
     private String imageUrl;
     
+    // Optional: new shops default to 1, updates without it keep the current capacity
+    @Min(value = 1, message = "Kitchen capacity must be at least 1")
+    @Max(value = 50, message = "Kitchen capacity must not exceed 50")
+    private Integer kitchenCapacity;
+    
     @NotNull(message = "Shop type is required")
     private ShopType shopType;
     
@@ -155,6 +160,14 @@ public class ShopRequest {
         this.imageUrl = imageUrl;
     }
     
+    public Integer getKitchenCapacity() {
+        return kitchenCapacity;
+    }
+    
+    public void setKitchenCapacity(Integer kitchenCapacity) {
+        this.kitchenCapacity = kitchenCapacity;
+    }
+    
     public ShopType getShopType() {
         return shopType;
     }
@@ -1,5 +1,6 @@
 package com.example.ordermanagement.dto;
 
+import com.example.ordermanagement.model.ImageVariant;
 import com.example.ordermanagement.model.ShopType;
 import com.example.ordermanagement.model.ShopStatus;
 
@@ -19,12 +20,14 @@ public class ShopResponse {
     private String address;
     private String description;
     private String imageUrl;
+    private Integer kitchenCapacity;
     private ShopType shopType;
     private ShopStatus status;
     private LocalDateTime registrationDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int menuItemsCount;
+    private int availableMenuItemsCount;
     
     // Constructors
     public ShopResponse() {}
@@ -149,6 +152,23 @@ public class ShopResponse {
         this.imageUrl = imageUrl;
     }
     
+    // Downscaled copies of the image for lists and cards (see ImageVariant)
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMBNAIL.urlFor(imageUrl);
+    }
+    
+    public String getCardUrl() {
+        return ImageVariant.CARD.urlFor(imageUrl);
+    }
+    
+    public Integer getKitchenCapacity() {
+        return kitchenCapacity;
+    }
+    
+    public void setKitchenCapacity(Integer kitchenCapacity) {
+        this.kitchenCapacity = kitchenCapacity;
+    }
+    
     public ShopType getShopType() {
         return shopType;
     }
@@ -197,6 +217,14 @@ public class ShopResponse {
         this.menuItemsCount = menuItemsCount;
     }
     
+    public int getAvailableMenuItemsCount() {
+        return availableMenuItemsCount;
+    }
+    
+    public void setAvailableMenuItemsCount(int availableMenuItemsCount) {
+        this.availableMenuItemsCount = availableMenuItemsCount;
+    }
+    
     // Helper methods
     public String getFullAddress() {
         return city + ", " + state + ", " + country + " - " + pincode;
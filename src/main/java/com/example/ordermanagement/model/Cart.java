@@ -30,6 +30,10 @@ public class Cart {
     @Column(name = "total_items")
     private Integer totalItems = 0;
     
+    // Total in cents, kept in step with totalAmount
+    @Transient
+    private long totalCents;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -77,6 +81,11 @@ public class Cart {
     
     public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount;
+        this.totalCents = Money.toCents(totalAmount);
+    }
+    
+    public long getTotalCents() {
+        return totalCents;
     }
     
     public Integer getTotalItems() {
@@ -103,17 +112,23 @@ public class Cart {
         this.updatedAt = updatedAt;
     }
     
-    // Helper methods
+    @PostLoad
+    protected void onLoad() {
+        totalCents = Money.toCents(totalAmount);
+    }
+    
+    // Helper methods (adding and removing adjust the totals incrementally)
     public void addCartItem(CartItem cartItem) {
         cartItems.add(cartItem);
         cartItem.setCart(this);
-        updateTotals();
+        applyTotals(totalItems + cartItem.getQuantity(), totalCents + cartItem.getSubtotalCents());
     }
     
     public void removeCartItem(CartItem cartItem) {
-        cartItems.remove(cartItem);
+        if (cartItems.remove(cartItem)) {
+            applyTotals(totalItems - cartItem.getQuantity(), totalCents - cartItem.getSubtotalCents());
+        }
         cartItem.setCart(null);
-        updateTotals();
     }
     
     public void clearCart() {
@@ -121,14 +136,23 @@ public class Cart {
         updateTotals();
     }
     
+    // Full recompute, needed after item quantities change in place
     public void updateTotals() {
-        this.totalItems = cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
-        
-        this.totalAmount = cartItems.stream()
-                .map(CartItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int items = 0;
+        long cents = 0;
+        for (CartItem cartItem : cartItems) {
+            items += cartItem.getQuantity();
+            cents += cartItem.getSubtotalCents();
+        }
+        applyTotals(items, cents);
+    }
+    
+    private void applyTotals(int items, long cents) {
+        this.totalItems = items;
+        if (totalAmount == null || cents != totalCents) {
+            this.totalCents = cents;
+            this.totalAmount = Money.fromCents(cents);
+        }
     }
     
     public boolean isEmpty() {
@@ -37,6 +37,13 @@ public class CartItem {
     @Column(name = "subtotal", precision = 10, scale = 2)
     private BigDecimal subtotal;
     
+    // Unit price and subtotal in cents, kept in step with the BigDecimal columns
+    @Transient
+    private long unitPriceCents;
+    
+    @Transient
+    private long subtotalCents;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -53,6 +60,7 @@ public class CartItem {
         this.menuItem = menuItem;
         this.quantity = quantity;
         this.unitPrice = menuItem.getPrice();
+        this.unitPriceCents = Money.toCents(unitPrice);
         calculateSubtotal();
     }
     
@@ -81,6 +89,7 @@ public class CartItem {
         this.menuItem = menuItem;
         if (menuItem != null) {
             this.unitPrice = menuItem.getPrice();
+            this.unitPriceCents = Money.toCents(unitPrice);
             calculateSubtotal();
         }
     }
@@ -100,15 +109,25 @@ public class CartItem {
     
     public void setUnitPrice(BigDecimal unitPrice) {
         this.unitPrice = unitPrice;
+        this.unitPriceCents = Money.toCents(unitPrice);
         calculateSubtotal();
     }
     
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+    
     public BigDecimal getSubtotal() {
         return subtotal;
     }
     
     public void setSubtotal(BigDecimal subtotal) {
         this.subtotal = subtotal;
+        this.subtotalCents = Money.toCents(subtotal);
+    }
+    
+    public long getSubtotalCents() {
+        return subtotalCents;
     }
     
     public LocalDateTime getCreatedAt() {
@@ -127,10 +146,21 @@ public class CartItem {
         this.updatedAt = updatedAt;
     }
     
+    @PostLoad
+    protected void onLoad() {
+        unitPriceCents = Money.toCents(unitPrice);
+        subtotalCents = Money.toCents(subtotal);
+    }
+    
     // Helper methods
     public void calculateSubtotal() {
         if (unitPrice != null && quantity != null) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            long cents = unitPriceCents * quantity;
+            // Only materialize a new BigDecimal when the amount actually changed
+            if (subtotal == null || cents != subtotalCents) {
+                this.subtotalCents = cents;
+                this.subtotal = Money.fromCents(cents);
+            }
         }
     }
     
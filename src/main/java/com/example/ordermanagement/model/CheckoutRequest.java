@@ -0,0 +1,85 @@
+package com.example.ordermanagement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records which order a client-supplied idempotency key produced, so retried checkouts
+ * return the original order. Written in the same transaction as the order itself.
+ */
+@Entity
+@Table(name = "checkout_requests",
+       uniqueConstraints = @UniqueConstraint(name = "uk_checkout_requests_user_key",
+                                             columnNames = {"user_id", "idempotency_key"}),
+       indexes = @Index(name = "idx_checkout_requests_created", columnList = "created_at"))
+public class CheckoutRequest {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public CheckoutRequest() {}
+    
+    public CheckoutRequest(Long userId, String idempotencyKey, Long orderId) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
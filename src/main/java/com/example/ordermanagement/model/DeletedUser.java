@@ -0,0 +1,47 @@
+package com.example.ordermanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remembers a deleted user for as long as tokens issued to them could still be valid, so every
+ * node rejects those tokens after the users row is gone.
+ */
+@Entity
+@Table(name = "deleted_users",
+       indexes = @Index(name = "idx_deleted_users_deleted", columnList = "deleted_at"))
+public class DeletedUser {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    public DeletedUser() {}
+    
+    public DeletedUser(Long userId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ordermanagement.model;
+
+/**
+ * Pre-generated, downscaled copies of an uploaded image.
+ *
+ * A variant sits next to its original and is named after it, e.g. {@code /uploads/menu-items/a1b2.jpeg}
+ * becomes {@code /uploads/menu-items/a1b2.jpeg.thumb.jpg}, so the URL of a variant can be derived
+ * without a lookup. Until the variant has been generated (or when the original could not be decoded)
+ * requests for it are answered with the original. Only images under {@code /uploads/} have variants.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 200, 200),
+    CARD("card", 640, 480);
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+    // Left next to an original that cannot get variants, so it is not read again on every startup
+    private static final String NO_VARIANTS_SUFFIX = ".novariants";
+
+    private final String suffix;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    ImageVariant(String suffix, int maxWidth, int maxHeight) {
+        this.suffix = suffix;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * File name of this variant of an original file name
+     */
+    public String fileNameFor(String originalFileName) {
+        return originalFileName + "." + suffix + "." + formatFor(originalFileName);
+    }
+
+    /**
+     * URL of this variant of an image, or the URL itself when it has no variants
+     */
+    public String urlFor(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(UPLOADS_PREFIX) || originalOf(imageUrl) != null) {
+            return imageUrl;
+        }
+        return fileNameFor(imageUrl);
+    }
+
+    /**
+     * Format the variants of an original are written in: PNG keeps transparency, JPEG for everything else
+     */
+    public static String formatFor(String originalFileName) {
+        String lowerCase = originalFileName.toLowerCase();
+        return lowerCase.endsWith(".png") || lowerCase.endsWith(".gif") ? "png" : "jpg";
+    }
+
+    /**
+     * File name of the marker recording that an original cannot get variants
+     */
+    public static String noVariantsMarkerFor(String originalFileName) {
+        return originalFileName + NO_VARIANTS_SUFFIX;
+    }
+
+    /**
+     * The original a variant (or no-variants marker) path or file name was derived from, or null when
+     * it is neither
+     */
+    public static String originalOf(String path) {
+        if (path.endsWith(NO_VARIANTS_SUFFIX)) {
+            return path.substring(0, path.length() - NO_VARIANTS_SUFFIX.length());
+        }
+        for (ImageVariant variant : values()) {
+            for (String format : new String[] {"jpg", "png"}) {
+                String ending = "." + variant.suffix + "." + format;
+                if (path.endsWith(ending)) {
+                    return path.substring(0, path.length() - ending.length());
+                }
+            }
+        }
+        return null;
+    }
+}
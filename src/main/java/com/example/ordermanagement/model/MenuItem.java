@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", indexes = {
+    @Index(name = "idx_menu_items_feed", columnList = "is_available, created_at, id")
+})
 public class MenuItem {
     
     @Id
@@ -31,6 +33,10 @@ public class MenuItem {
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
     
+    // Price in cents, kept in step with price for allocation-free arithmetic
+    @Transient
+    private long priceCents;
+    
     @NotNull(message = "Category is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "category", nullable = false)
@@ -73,6 +79,7 @@ public class MenuItem {
         this.itemName = itemName;
         this.description = description;
         this.price = price;
+        this.priceCents = Money.toCents(price);
         this.category = category;
         this.shop = shop;
     }
@@ -108,6 +115,16 @@ public class MenuItem {
     
     public void setPrice(BigDecimal price) {
         this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+    
+    public long getPriceCents() {
+        return priceCents;
+    }
+    
+    @PostLoad
+    protected void onLoad() {
+        priceCents = Money.toCents(price);
     }
     
     public MenuCategory getCategory() {
@@ -0,0 +1,30 @@
+package com.example.ordermanagement.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are held internally as long minor units (cents)
+ * and converted to {@link BigDecimal} with scale 2 only at persistence and API boundaries.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static String format(long cents) {
+        return "$" + fromCents(cents).toString();
+    }
+}
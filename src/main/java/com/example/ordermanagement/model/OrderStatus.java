@@ -0,0 +1,19 @@
+package com.example.ordermanagement.model;
+
+public enum OrderStatus {
+    PLACED("Placed"),
+    PREPARING("Preparing"),
+    READY("Ready"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled");
+    
+    private final String displayName;
+    
+    OrderStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
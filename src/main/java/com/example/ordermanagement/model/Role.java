@@ -21,6 +21,15 @@ public enum Role {
         return displayName;
     }
 
+    public static Role fromAuthority(String authority) {
+        for (Role role : values()) {
+            if (role.authority.equals(authority)) {
+                return role;
+            }
+        }
+        throw new IllegalArgumentException("Unknown role authority: " + authority);
+    }
+
     @Override
     public String toString() {
         return displayName;
@@ -67,6 +67,10 @@ public class Shop {
     @Column(name = "image_url")
     private String imageUrl;
     
+    // Number of orders the kitchen can prepare in parallel
+    @Column(name = "kitchen_capacity", nullable = false)
+    private Integer kitchenCapacity = 1;
+    
     @NotNull(message = "Shop type is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "shop_type", nullable = false)
@@ -212,6 +216,14 @@ public class Shop {
         this.imageUrl = imageUrl;
     }
     
+    public Integer getKitchenCapacity() {
+        return kitchenCapacity;
+    }
+    
+    public void setKitchenCapacity(Integer kitchenCapacity) {
+        this.kitchenCapacity = kitchenCapacity;
+    }
+    
     public ShopType getShopType() {
         return shopType;
     }
@@ -13,7 +13,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_tokens_valid_after", columnList = "tokens_valid_after"))
 public class User implements UserDetails {
 
     @Id
@@ -60,6 +60,10 @@ public class User implements UserDetails {
 
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
+
+    // Tokens issued before this time are rejected (set on role and password changes)
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
     
     // One-to-One relationship with Shop (for shop owners)
     @OneToOne(mappedBy = "ownerUser", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -209,6 +213,14 @@ public class User implements UserDetails {
         this.lastLogin = lastLogin;
     }
     
+    public LocalDateTime getTokensValidAfter() {
+        return tokensValidAfter;
+    }
+
+    public void setTokensValidAfter(LocalDateTime tokensValidAfter) {
+        this.tokensValidAfter = tokensValidAfter;
+    }
+    
     public Shop getOwnedShop() {
         return ownedShop;
     }
@@ -50,4 +50,19 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      */
     @Query("SELECT COUNT(c) FROM Cart c WHERE c.totalItems > 0")
     Long countActiveCarts();
+
+    /**
+     * Total and active cart counts, with the cart item count as a subquery, in one statement
+     */
+    @Query("SELECT COUNT(c) AS totalCarts, " +
+           "COUNT(CASE WHEN c.totalItems > 0 THEN 1 END) AS activeCarts, " +
+           "(SELECT COUNT(ci) FROM CartItem ci) AS totalCartItems " +
+           "FROM Cart c")
+    CartCounts countCarts();
+
+    interface CartCounts {
+        long getTotalCarts();
+        long getActiveCarts();
+        long getTotalCartItems();
+    }
 }
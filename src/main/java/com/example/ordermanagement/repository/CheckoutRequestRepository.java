@@ -0,0 +1,25 @@
+package com.example.ordermanagement.repository;
+
+import com.example.ordermanagement.model.CheckoutRequest;
+import com.example.ordermanagement.model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CheckoutRequestRepository extends JpaRepository<CheckoutRequest, Long> {
+    
+    // Order produced by an earlier checkout with the same key, if any
+    @Query("SELECT o FROM Order o, CheckoutRequest r WHERE r.orderId = o.id AND r.userId = :userId AND r.idempotencyKey = :key")
+    Optional<Order> findOrderByUserIdAndKey(@Param("userId") Long userId, @Param("key") String key);
+    
+    // Purge keys past the retention window
+    @Modifying
+    @Query("DELETE FROM CheckoutRequest r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
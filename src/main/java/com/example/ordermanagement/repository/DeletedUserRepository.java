@@ -0,0 +1,24 @@
+package com.example.ordermanagement.repository;
+
+import com.example.ordermanagement.model.DeletedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletedUserRepository extends JpaRepository<DeletedUser, Long> {
+    
+    // IDs of users deleted after the given time (for the JWT revocation list)
+    @Query("SELECT d.userId FROM DeletedUser d WHERE d.deletedAt > :since")
+    List<Long> findUserIdsDeletedAfter(@Param("since") LocalDateTime since);
+    
+    // Purge users deleted longer ago than any token lives
+    @Modifying
+    @Query("DELETE FROM DeletedUser d WHERE d.deletedAt <= :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,12 +2,15 @@ package com.example.ordermanagement.repository;
 
 import com.example.ordermanagement.model.MenuItem;
 import com.example.ordermanagement.model.MenuCategory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,6 +26,10 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     // Find all available menu items (for customer dashboard)
     List<MenuItem> findByIsAvailableTrue();
     
+    // Find all menu items with their shop (for the in-memory menu catalog)
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.shop")
+    List<MenuItem> findAllWithShop();
+    
     // Find menu items by category
     List<MenuItem> findByCategory(MenuCategory category);
     
@@ -63,6 +70,18 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT COUNT(m) FROM MenuItem m WHERE m.shop.id = :shopId AND m.isAvailable = true")
     long countAvailableByShopId(@Param("shopId") Long shopId);
     
+    // Count total and available menu items for a batch of shops in one grouped query
+    // Each row is [shopId, totalCount, availableCount]; shops without items are absent
+    @Query("SELECT m.shop.id, COUNT(m), SUM(CASE WHEN m.isAvailable = true THEN 1 ELSE 0 END) " +
+           "FROM MenuItem m WHERE m.shop.id IN :shopIds GROUP BY m.shop.id")
+    List<Object[]> countMenuItemsByShopIds(@Param("shopIds") Collection<Long> shopIds);
+
+    // Checkout validation and kitchen scheduling input for a batch of items in one query
+    // Each row is [menuItemId, shopId, isAvailable, preparationTimeMinutes, shop kitchenCapacity]; deleted items are absent
+    @Query("SELECT m.id, m.shop.id, m.isAvailable, m.preparationTimeMinutes, m.shop.kitchenCapacity " +
+           "FROM MenuItem m WHERE m.id IN :ids")
+    List<Object[]> findCheckoutInfoByIds(@Param("ids") Collection<Long> ids);
+
     // Find items with preparation time less than specified minutes
     @Query("SELECT m FROM MenuItem m WHERE m.shop.id = :shopId AND m.preparationTimeMinutes <= :maxTime")
     List<MenuItem> findQuickItemsByShopId(@Param("shopId") Long shopId, @Param("maxTime") Integer maxTime);
@@ -86,6 +105,39 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
                                  @Param("minPrice") BigDecimal minPrice,
                                  @Param("maxPrice") BigDecimal maxPrice);
     
+    // Customer menu feed, first page: available items, newest first, keyset ordered by (createdAt, id)
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.shop WHERE m.isAvailable = true AND " +
+           "(:category IS NULL OR m.category = :category) AND " +
+           "(:isVegetarian IS NULL OR m.isVegetarian = :isVegetarian) AND " +
+           "(:isVegan IS NULL OR m.isVegan = :isVegan) AND " +
+           "(:minPrice IS NULL OR m.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR m.price <= :maxPrice) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MenuItem> findMenuFeedFirstPage(@Param("category") MenuCategory category,
+                                        @Param("isVegetarian") Boolean isVegetarian,
+                                        @Param("isVegan") Boolean isVegan,
+                                        @Param("minPrice") BigDecimal minPrice,
+                                        @Param("maxPrice") BigDecimal maxPrice,
+                                        Pageable pageable);
+    
+    // Customer menu feed, next pages: seeks past the last (createdAt, id) seen instead of using an offset
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.shop WHERE m.isAvailable = true AND " +
+           "(m.createdAt < :afterCreatedAt OR (m.createdAt = :afterCreatedAt AND m.id < :afterId)) AND " +
+           "(:category IS NULL OR m.category = :category) AND " +
+           "(:isVegetarian IS NULL OR m.isVegetarian = :isVegetarian) AND " +
+           "(:isVegan IS NULL OR m.isVegan = :isVegan) AND " +
+           "(:minPrice IS NULL OR m.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR m.price <= :maxPrice) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MenuItem> findMenuFeedPageAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                        @Param("afterId") Long afterId,
+                                        @Param("category") MenuCategory category,
+                                        @Param("isVegetarian") Boolean isVegetarian,
+                                        @Param("isVegan") Boolean isVegan,
+                                        @Param("minPrice") BigDecimal minPrice,
+                                        @Param("maxPrice") BigDecimal maxPrice,
+                                        Pageable pageable);
+    
     // Find most expensive items by shop
     @Query("SELECT m FROM MenuItem m WHERE m.shop.id = :shopId ORDER BY m.price DESC")
     List<MenuItem> findItemsByShopIdOrderByPriceDesc(@Param("shopId") Long shopId);
@@ -108,4 +160,11 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     
     // Delete all items by shop ID (for shop deletion)
     void deleteByShopId(Long shopId);
+    
+    // Count menu items showing an image
+    long countByImageUrl(String imageUrl);
+    
+    // Images referenced by any menu item
+    @Query("SELECT DISTINCT m.imageUrl FROM MenuItem m WHERE m.imageUrl IS NOT NULL")
+    List<String> findDistinctImageUrls();
 }
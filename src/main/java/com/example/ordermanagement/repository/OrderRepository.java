@@ -0,0 +1,50 @@
+package com.example.ordermanagement.repository;
+
+import com.example.ordermanagement.model.Order;
+import com.example.ordermanagement.model.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    
+    /**
+     * Find a user's orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find order with its lines
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderLines WHERE o.id = :id")
+    Optional<Order> findByIdWithLines(@Param("id") Long id);
+    
+    /**
+     * Count a user's orders
+     */
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Lines of the orders in the given statuses, oldest order first (for re-queueing the kitchens).
+     * Each row is [orderId, shopId, shop kitchenCapacity, preparationTimeMinutes, quantity, order createdAt];
+     * the preparation time is null for items deleted since.
+     */
+    @Query("SELECT o.id, s.id, s.kitchenCapacity, m.preparationTimeMinutes, ol.quantity, o.createdAt " +
+           "FROM OrderLine ol JOIN ol.order o JOIN ol.shop s LEFT JOIN MenuItem m ON m.id = ol.menuItemId " +
+           "WHERE o.status IN :statuses ORDER BY o.createdAt, o.id")
+    List<Object[]> findLinesOfOrdersWithStatus(@Param("statuses") Collection<OrderStatus> statuses);
+    
+    /**
+     * Those of the given order IDs whose order is in one of the statuses
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status IN :statuses")
+    List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OrderStatus> statuses);
+}
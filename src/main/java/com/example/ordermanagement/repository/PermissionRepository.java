@@ -26,6 +26,10 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
     @Query("SELECT p FROM Permission p WHERE p.name LIKE %:search% OR p.description LIKE %:search%")
     List<Permission> searchPermissions(@Param("search") String search);
     
+    // ID, name, resource and action of every active permission, in ordinal order (for the permission bitset cache)
+    @Query("SELECT p.id, p.name, p.resource, p.action FROM Permission p WHERE p.isActive = true ORDER BY p.id")
+    List<Object[]> findActivePermissionKeys();
+    
     boolean existsByName(String name);
     
     boolean existsByResourceAndAction(String resource, String action);
@@ -87,6 +87,11 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     @Query("SELECT COUNT(s) FROM Shop s WHERE s.shopType = :shopType")
     long countByShopType(@Param("shopType") ShopType shopType);
     
+    // Count shops per status and type in one grouped aggregate
+    @Query("SELECT s.status AS status, s.shopType AS shopType, COUNT(s) AS shops " +
+           "FROM Shop s GROUP BY s.status, s.shopType")
+    List<ShopCounts> countShopsByStatusAndType();
+    
     // Find shops with menu items count
     @Query("SELECT s FROM Shop s LEFT JOIN s.menuItems m GROUP BY s HAVING COUNT(m) > 0")
     List<Shop> findShopsWithMenuItems();
@@ -111,4 +116,17 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     
     // Check if shop exists for owner user ID
     boolean existsByOwnerUserId(Long ownerUserId);
+    
+    // Count shops showing an image
+    long countByImageUrl(String imageUrl);
+    
+    // Images referenced by any shop
+    @Query("SELECT DISTINCT s.imageUrl FROM Shop s WHERE s.imageUrl IS NOT NULL")
+    List<String> findDistinctImageUrls();
+
+    interface ShopCounts {
+        ShopStatus getStatus();
+        ShopType getShopType();
+        long getShops();
+    }
 }
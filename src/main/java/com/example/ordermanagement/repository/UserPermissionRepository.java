@@ -36,6 +36,10 @@ public interface UserPermissionRepository extends JpaRepository<UserPermission,
             @Param("action") String action, 
             @Param("now") LocalDateTime now);
     
+    // Permission ID and expiry of every effective grant of a user (for the permission bitset cache)
+    @Query("SELECT up.permission.id, up.expiresAt FROM UserPermission up WHERE up.user.id = :userId AND up.isActive = true AND (up.expiresAt IS NULL OR up.expiresAt > :now)")
+    List<Object[]> findEffectiveGrantsByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
     @Query("SELECT up FROM UserPermission up WHERE up.grantedBy = :grantedBy")
     List<UserPermission> findByGrantedBy(@Param("grantedBy") Long grantedBy);
     
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,6 +55,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByIsActiveFalse();
 
+    /**
+     * Find IDs of inactive users (for the JWT revocation list)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
+
+    /**
+     * ID and token cutoff of users whose cutoff is later than the given time (for the JWT revocation list)
+     */
+    @Query("SELECT u.id, u.tokensValidAfter FROM User u WHERE u.tokensValidAfter > :since")
+    List<Object[]> findTokenCutoffsAfter(@Param("since") LocalDateTime since);
+
     /**
      * Find users by role and active status
      */
@@ -77,4 +90,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Count active users
      */
     long countByIsActiveTrue();
+
+    /**
+     * Total, active and per-role user counts in one aggregate over the users table
+     */
+    @Query("SELECT COUNT(u) AS totalUsers, " +
+           "COUNT(CASE WHEN u.isActive = true THEN 1 END) AS activeUsers, " +
+           "COUNT(CASE WHEN u.role = com.example.ordermanagement.model.Role.ADMIN THEN 1 END) AS adminUsers, " +
+           "COUNT(CASE WHEN u.role = com.example.ordermanagement.model.Role.SHOP THEN 1 END) AS shopUsers, " +
+           "COUNT(CASE WHEN u.role = com.example.ordermanagement.model.Role.CUSTOMER THEN 1 END) AS customerUsers " +
+           "FROM User u")
+    UserCounts countUsers();
+
+    /**
+     * Find the most recently registered users
+     */
+    List<User> findTop5ByOrderByCreatedAtDesc();
+
+    interface UserCounts {
+        long getTotalUsers();
+        long getActiveUsers();
+        long getAdminUsers();
+        long getShopUsers();
+        long getCustomerUsers();
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.ordermanagement.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts form and API logins by outcome ({@code app.logins{result=success|failure}}).
+ *
+ * Listens to the events the authentication manager publishes, so requests authenticated by an
+ * existing JWT are not counted as logins.
+ */
+@Component
+public class AuthenticationMetrics {
+
+    private final Counter successes;
+    private final Counter failures;
+
+    public AuthenticationMetrics(MeterRegistry meterRegistry) {
+        this.successes = Counter.builder("app.logins").tag("result", "success").register(meterRegistry);
+        this.failures = Counter.builder("app.logins").tag("result", "failure").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successes.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        failures.increment();
+    }
+}
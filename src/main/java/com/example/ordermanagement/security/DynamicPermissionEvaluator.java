@@ -1,7 +1,8 @@
 package com.example.ordermanagement.security;
 
 import com.example.ordermanagement.model.User;
-import com.example.ordermanagement.service.PermissionService;
+import com.example.ordermanagement.service.PermissionCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +18,10 @@ public class DynamicPermissionEvaluator implements PermissionEvaluator {
     private static final Logger logger = LoggerFactory.getLogger(DynamicPermissionEvaluator.class);
 
     @Autowired
-    private PermissionService permissionService;
+    private PermissionCache permissionCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
@@ -33,15 +37,15 @@ public class DynamicPermissionEvaluator implements PermissionEvaluator {
             // Format: "resource:action"
             String[] parts = permissionString.split(":");
             if (parts.length == 2) {
-                return permissionService.hasPermission(user.getId(), parts[0], parts[1]);
+                return counted(permissionCache.hasPermission(user.getId(), parts[0], parts[1]), permissionString);
             }
         } else {
             // Handle permission name directly
-            return permissionService.hasPermissionByName(user.getId(), permissionString);
+            return counted(permissionCache.hasPermissionByName(user.getId(), permissionString), permissionString);
         }
 
         logger.debug("Permission check failed for user {} with permission {}", user.getUsername(), permissionString);
-        return false;
+        return counted(false, permissionString);
     }
 
     @Override
@@ -56,20 +60,29 @@ public class DynamicPermissionEvaluator implements PermissionEvaluator {
         // For resource-specific permissions (e.g., shop:123:edit)
         if (targetId != null && targetType != null) {
             String resource = targetType + ":" + targetId;
-            return permissionService.hasPermission(user.getId(), resource, permissionString);
+            // Tagged by type only; one series per target ID would grow without bound
+            return counted(permissionCache.hasPermission(user.getId(), resource, permissionString),
+                    targetType + ":" + permissionString);
         }
 
         return hasPermission(authentication, null, permission);
     }
 
-    // Helper method for common permission checks
+    // Helper method for common permission checks (ordinal lookup plus a single bit test)
     public boolean canAccessResource(Authentication authentication, String resource, String action) {
         if (authentication == null) {
             return false;
         }
 
         User user = (User) authentication.getPrincipal();
-        return permissionService.hasPermission(user.getId(), resource, action);
+        return counted(permissionCache.hasPermission(user.getId(), resource, action), resource + ":" + action);
+    }
+
+    private boolean counted(boolean granted, String permission) {
+        if (!granted) {
+            meterRegistry.counter("app.permission.denials", "permission", permission).increment();
+        }
+        return granted;
     }
 
     // Convenience methods for common operations
@@ -1,10 +1,14 @@
 package com.example.ordermanagement.security;
 
+import com.example.ordermanagement.model.Role;
+import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,10 +24,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final JwtRevocationRegistry jwtRevocationRegistry;
+    private final boolean stateless;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, @Lazy UserService userService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, @Lazy UserService userService,
+                                   JwtRevocationRegistry jwtRevocationRegistry,
+                                   @Value("${jwt.stateless:false}") boolean stateless) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.jwtRevocationRegistry = jwtRevocationRegistry;
+        this.stateless = stateless;
     }
 
     @Override
@@ -52,6 +62,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
+        // Stateless mode: build the principal from verified claims without a user lookup
+        if (stateless && username != null && authenticateFromClaims(jwt, request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Validate token and set authentication (for API requests)
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
@@ -79,6 +95,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Authenticate from the token's role and userId claims. Returns false when the token
+     * lacks those claims so the caller can fall back to the database lookup.
+     */
+    private boolean authenticateFromClaims(String jwt, HttpServletRequest request) {
+        try {
+            Claims claims = jwtUtil.extractAllClaims(jwt);
+            Long userId = claims.get("userId", Long.class);
+            String role = claims.get("role", String.class);
+            if (userId == null || role == null) {
+                return false;
+            }
+
+            if (jwtRevocationRegistry.isRevoked(userId, claims.getIssuedAt())) {
+                logger.warn("Rejected revoked JWT token for user: " + claims.getSubject());
+                return true;
+            }
+
+            // Detached principal: carries identity and role only, not a managed entity
+            User principal = new User();
+            principal.setId(userId);
+            principal.setUsername(claims.getSubject());
+            principal.setRole(Role.fromAuthority(role));
+            principal.setIsActive(true);
+
+            UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+
+            logger.debug("Stateless JWT authentication successful for user: " + principal.getUsername());
+        } catch (Exception e) {
+            logger.warn("JWT authentication failed: " + e.getMessage());
+        }
+        return true;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -0,0 +1,147 @@
+package com.example.ordermanagement.security;
+
+import com.example.ordermanagement.model.DeletedUser;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.DeletedUserRepository;
+import com.example.ordermanagement.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation check for stateless JWT authentication.
+ *
+ * Tracks deactivated users and, per user, a "revoked before" timestamp: tokens issued before it
+ * (e.g. before a role or password change) are rejected. The timestamps are persisted in
+ * {@code users.tokens_valid_after}, and deleted users in {@code deleted_users}. Both are reloaded
+ * from the database on a fixed delay together with the deactivated users, so changes made on another
+ * node or before a restart are picked up within one refresh interval while individual requests never
+ * query the database. Only cutoffs from within one token lifetime are kept, since older tokens have
+ * expired anyway.
+ */
+@Component
+public class JwtRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtRevocationRegistry.class);
+
+    private final UserRepository userRepository;
+    private final DeletedUserRepository deletedUserRepository;
+    private final long tokenLifetimeMillis;
+
+    private volatile Set<Long> inactiveUserIds = Set.of();
+    private volatile Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public JwtRevocationRegistry(UserRepository userRepository, DeletedUserRepository deletedUserRepository,
+                                 @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis) {
+        this.userRepository = userRepository;
+        this.deletedUserRepository = deletedUserRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    /**
+     * Check whether a token for this user, issued at the given time, must be rejected
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (inactiveUserIds.contains(userId)) {
+            return true;
+        }
+        Long cutoff = revokedBefore.get(userId);
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() < cutoff);
+    }
+
+    /**
+     * Reject all tokens issued to the user so far (role or password change). The cutoff is set on the
+     * user, to be persisted when the caller saves it, and applies on this node immediately.
+     */
+    public void revokeTokensIssuedBefore(User user, long epochMillis) {
+        // "iat" has whole seconds, so a token issued right after the revocation carries an iat at or
+        // before it; truncate the cutoff so that token is accepted. Tokens issued earlier within the
+        // same second are accepted too.
+        long cutoff = epochMillis - Math.floorMod(epochMillis, 1000L);
+        LocalDateTime validAfter = toLocalDateTime(cutoff);
+        if (user.getTokensValidAfter() == null || user.getTokensValidAfter().isBefore(validAfter)) {
+            user.setTokensValidAfter(validAfter);
+        }
+        record(user.getId(), cutoff);
+    }
+
+    /**
+     * Reject every token of a deleted user, on all nodes
+     */
+    public void revokeDeletedUser(Long userId) {
+        deletedUserRepository.save(new DeletedUser(userId, LocalDateTime.now()));
+        record(userId, Long.MAX_VALUE);
+    }
+
+    private synchronized void record(Long userId, long cutoff) {
+        revokedBefore.merge(userId, cutoff, Math::max);
+    }
+
+    /**
+     * Record a user activation/deactivation immediately on this node
+     */
+    public synchronized void setUserActive(Long userId, boolean active) {
+        Set<Long> updated = new HashSet<>(inactiveUserIds);
+        if (active) {
+            updated.remove(userId);
+        } else {
+            updated.add(userId);
+        }
+        inactiveUserIds = Set.copyOf(updated);
+    }
+
+    /**
+     * Reload deactivated users and token cutoffs from the database (a few queries per interval, not per
+     * request), and purge deleted users older than a token lifetime
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation-refresh-ms:30000}", initialDelayString = "${jwt.revocation-refresh-ms:30000}")
+    @Transactional
+    public synchronized void refreshInactiveUsers() {
+        long sinceMillis = System.currentTimeMillis() - tokenLifetimeMillis;
+        LocalDateTime since = toLocalDateTime(sinceMillis);
+
+        inactiveUserIds = Set.copyOf(userRepository.findInactiveUserIds());
+
+        Map<Long, Long> cutoffs = new ConcurrentHashMap<>();
+        for (Object[] row : userRepository.findTokenCutoffsAfter(since)) {
+            cutoffs.put((Long) row[0], toEpochMillis((LocalDateTime) row[1]));
+        }
+        for (Long userId : deletedUserRepository.findUserIdsDeletedAfter(since)) {
+            cutoffs.put(userId, Long.MAX_VALUE);
+        }
+        // Keep recent local revocations whose transaction may not have committed before the queries
+        revokedBefore.forEach((userId, cutoff) -> {
+            if (cutoff > sinceMillis) {
+                cutoffs.merge(userId, cutoff, Math::max);
+            }
+        });
+        revokedBefore = cutoffs;
+
+        deletedUserRepository.deleteDeletedBefore(since);
+        logger.debug("Refreshed JWT revocation list: {} inactive users, {} token cutoffs",
+                inactiveUserIds.size(), cutoffs.size());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
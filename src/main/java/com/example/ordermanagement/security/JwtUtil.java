@@ -7,9 +7,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 @Component
@@ -21,6 +28,14 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private final ConcurrentHashMap<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -94,9 +109,30 @@ public class JwtUtil {
     }
 
     /**
-     * Extract all claims from token
+     * Extract all claims from token (verifies signature and expiration).
+     * Verified claims are cached by token digest until the token expires, so each token
+     * is signature-verified once per lifetime on this node.
      */
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                cacheHits.increment();
+                return cached.claims;
+            }
+            claimsCache.remove(key, cached);
+        }
+        
+        cacheMisses.increment();
+        Claims claims = parseClaims(token);
+        cacheClaims(key, claims, now);
+        return claims;
+    }
+    
+    private Claims parseClaims(String token) {
         try {
             return Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
@@ -107,6 +143,68 @@ public class JwtUtil {
             throw new RuntimeException("Invalid JWT token: " + e.getMessage());
         }
     }
+    
+    private void cacheClaims(String key, Claims claims, long now) {
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt == null) {
+            return;
+        }
+        if (claimsCache.size() >= claimsCacheSize) {
+            evictClaims(now);
+        }
+        claimsCache.put(key, new CachedClaims(claims, expiresAt.getTime()));
+    }
+    
+    // Drop expired entries first; if the cache is still full, drop arbitrary entries down to 90%
+    private void evictClaims(long now) {
+        claimsCache.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = claimsCache.size() - (claimsCacheSize * 9 / 10);
+        Iterator<String> keys = claimsCache.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            cacheEvictions.increment();
+        }
+    }
+    
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Claims cache metrics
+     */
+    public long getClaimsCacheHits() {
+        return cacheHits.sum();
+    }
+    
+    public long getClaimsCacheMisses() {
+        return cacheMisses.sum();
+    }
+    
+    public long getClaimsCacheEvictions() {
+        return cacheEvictions.sum();
+    }
+    
+    public int getClaimsCacheSize() {
+        return claimsCache.size();
+    }
+    
+    private static class CachedClaims {
+        private final Claims claims;
+        private final long expiresAt;
+        
+        CachedClaims(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
 
     /**
      * Check if token is expired
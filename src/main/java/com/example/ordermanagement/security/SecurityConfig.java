@@ -98,8 +98,15 @@ public class SecurityConfig {
                 
                 // Static resources
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/favicon.ico").permitAll()
+                // Shop and menu images, publicly cacheable
+                .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/error").permitAll()
                 
+                // Health checks and Prometheus scrapes, served only on the management port; other
+                // actuator endpoints are admin-only
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // API endpoints with role-based access (use JWT)
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/shop/**").hasAnyRole("ADMIN", "SHOP")
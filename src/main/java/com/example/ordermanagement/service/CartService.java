@@ -1,163 +1,153 @@
 package com.example.ordermanagement.service;
 
+import com.example.ordermanagement.dto.CartItemResponse;
+import com.example.ordermanagement.dto.CartResponse;
 import com.example.ordermanagement.model.Cart;
-import com.example.ordermanagement.model.CartItem;
 import com.example.ordermanagement.model.MenuItem;
 import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.repository.CartRepository;
-import com.example.ordermanagement.repository.CartItemRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
-@Transactional
+@Timed(value = "app.service", histogram = true)
 public class CartService {
     
     @Autowired
     private CartRepository cartRepository;
     
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
+    
+    @Autowired
+    private UserEventHub userEventHub;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     /**
-     * Get or create cart for user
+     * Get or create cart for user (served from the in-memory cart store).
+     * Cart lines are identified by their menu item ID.
      */
-    public Cart getOrCreateCart(User user) {
-        Optional<Cart> existingCart = cartRepository.findByUserWithItems(user);
-        if (existingCart.isPresent()) {
-            return existingCart.get();
-        }
-        
-        Cart newCart = new Cart(user);
-        return cartRepository.save(newCart);
+    public CartResponse getOrCreateCart(User user) {
+        return cartStore.getCart(user);
     }
     
     /**
      * Add item to cart
      */
-    public Cart addItemToCart(User user, MenuItem menuItem, Integer quantity) {
-        Cart cart = getOrCreateCart(user);
-        
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartAndMenuItem(cart, menuItem);
-        
-        if (existingItem.isPresent()) {
-            // Update quantity if item already exists
-            CartItem cartItem = existingItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            cartItem.calculateSubtotal();
-            cartItemRepository.save(cartItem);
-        } else {
-            // Add new item to cart
-            CartItem cartItem = new CartItem(cart, menuItem, quantity);
-            cart.addCartItem(cartItem);
-            cartItemRepository.save(cartItem);
-        }
-        
-        cart.updateTotals();
-        return cartRepository.save(cart);
+    public CartResponse addItemToCart(User user, MenuItem menuItem, Integer quantity) {
+        countMutation("add");
+        return publish(cartStore.addItem(user, menuItem, quantity));
     }
     
     /**
-     * Update cart item quantity
+     * Update cart item quantity (zero or negative removes the item)
      */
-    public Cart updateCartItemQuantity(User user, Long cartItemId, Integer quantity) {
-        Cart cart = getOrCreateCart(user);
-        
-        Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
-        if (cartItemOpt.isPresent()) {
-            CartItem cartItem = cartItemOpt.get();
-            
-            // Verify the cart item belongs to the user's cart
-            if (cartItem.getCart().getUser().getId().equals(user.getId())) {
-                if (quantity <= 0) {
-                    // Remove item if quantity is 0 or negative
-                    cart.removeCartItem(cartItem);
-                    cartItemRepository.delete(cartItem);
-                } else {
-                    // Update quantity
-                    cartItem.setQuantity(quantity);
-                    cartItem.calculateSubtotal();
-                    cartItemRepository.save(cartItem);
-                }
-                
-                cart.updateTotals();
-                cartRepository.save(cart);
-            }
-        }
-        
-        return cart;
+    public CartResponse updateCartItemQuantity(User user, Long menuItemId, Integer quantity) {
+        countMutation("update");
+        return publish(cartStore.updateQuantity(user, menuItemId, quantity));
     }
     
     /**
      * Remove item from cart
      */
-    public Cart removeItemFromCart(User user, Long cartItemId) {
-        Cart cart = getOrCreateCart(user);
-        
-        Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
-        if (cartItemOpt.isPresent()) {
-            CartItem cartItem = cartItemOpt.get();
-            
-            // Verify the cart item belongs to the user's cart
-            if (cartItem.getCart().getUser().getId().equals(user.getId())) {
-                cart.removeCartItem(cartItem);
-                cartItemRepository.delete(cartItem);
-                cart.updateTotals();
-                cartRepository.save(cart);
-            }
-        }
-        
-        return cart;
+    public CartResponse removeItemFromCart(User user, Long menuItemId) {
+        countMutation("remove");
+        return publish(cartStore.removeItem(user, menuItemId));
     }
     
     /**
      * Clear all items from cart
      */
-    public Cart clearCart(User user) {
-        Cart cart = getOrCreateCart(user);
-        cartItemRepository.deleteByCart(cart);
-        cart.clearCart();
-        return cartRepository.save(cart);
+    public CartResponse clearCart(User user) {
+        countMutation("clear");
+        return publish(cartStore.clear(user));
+    }
+    
+    private void countMutation(String operation) {
+        meterRegistry.counter("app.cart.mutations", "operation", operation).increment();
+    }
+    
+    /**
+     * Push the current cart to the user's open event streams (e.g. after checkout emptied it)
+     */
+    public void publishCart(User user) {
+        if (userEventHub.hasSubscribers(user.getId())) {
+            publish(cartStore.getCart(user));
+        }
+    }
+    
+    private CartResponse publish(CartResponse cart) {
+        if (userEventHub.hasSubscribers(cart.getUserId())) {
+            userEventHub.publish(cart.getUserId(), "cart", toCartData(cart));
+        }
+        return cart;
     }
     
     /**
-     * Get cart by user
+     * Cart as sent to the dashboard, both by /customer/cart/data and by "cart" events
      */
-    public Optional<Cart> getCartByUser(User user) {
-        return cartRepository.findByUserWithItems(user);
+    public Map<String, Object> toCartData(CartResponse cart) {
+        List<CartItemResponse> cartItems = cart.getCartItems();
+        BigDecimal totalAmount = cart.getTotalAmount();
+        
+        List<Map<String, Object>> cartItemsData = cartItems.stream().map(item -> {
+            Map<String, Object> itemData = new HashMap<>();
+            itemData.put("id", item.getId());
+            itemData.put("menuItemId", item.getMenuItemId());
+            itemData.put("itemName", item.getItemName());
+            itemData.put("imageUrl", item.getImageUrl() != null ? item.getThumbnailUrl() : "/images/default-food.jpg");
+            itemData.put("unitPrice", item.getUnitPrice().toString());
+            itemData.put("formattedUnitPrice", item.getFormattedUnitPrice());
+            itemData.put("quantity", item.getQuantity());
+            itemData.put("subtotal", item.getSubtotal().toString());
+            itemData.put("formattedSubtotal", "$" + item.getSubtotal().toString());
+            return itemData;
+        }).toList();
+        
+        return Map.of(
+            "cartItems", cartItemsData,
+            "totalItems", cart.getTotalItems(),
+            "totalAmount", totalAmount != null ? totalAmount.toString() : "0.00",
+            "formattedTotal", totalAmount != null ? "$" + totalAmount.toString() : "$0.00",
+            "isEmpty", cartItems.isEmpty()
+        );
     }
     
     /**
-     * Get cart items by cart
+     * Write any pending changes of the user's cart to the database now
      */
-    public List<CartItem> getCartItems(Cart cart) {
-        return cartItemRepository.findByCartWithMenuItems(cart);
+    public void flushCart(User user) {
+        cartStore.flush(user.getId());
     }
     
     /**
      * Get cart item count for user
      */
     public Integer getCartItemCount(User user) {
-        Optional<Cart> cart = cartRepository.findByUser(user);
-        return cart.map(Cart::getTotalItems).orElse(0);
+        return getOrCreateCart(user).getTotalItems();
     }
     
     /**
      * Check if cart is empty
      */
     public boolean isCartEmpty(User user) {
-        Optional<Cart> cart = cartRepository.findByUser(user);
-        return cart.map(Cart::isEmpty).orElse(true);
+        return getOrCreateCart(user).isEmpty();
     }
     
     /**
      * Get all carts (for admin purposes)
      */
+    @Transactional(readOnly = true)
     public List<Cart> getAllCarts() {
         return cartRepository.findAll();
     }
@@ -165,19 +155,19 @@ public class CartService {
     /**
      * Delete cart
      */
+    @Transactional
     public void deleteCart(Long cartId) {
+        cartStore.evictByCartId(cartId);
         cartRepository.deleteById(cartId);
     }
     
     /**
-     * Get cart statistics
+     * Get cart statistics (one query over the carts and cart items tables)
      */
+    @Transactional(readOnly = true)
     public CartStatistics getCartStatistics() {
-        Long totalCarts = cartRepository.countTotalCarts();
-        Long activeCarts = cartRepository.countActiveCarts();
-        Long totalCartItems = cartItemRepository.countTotalCartItems();
-        
-        return new CartStatistics(totalCarts, activeCarts, totalCartItems);
+        CartRepository.CartCounts counts = cartRepository.countCarts();
+        return new CartStatistics(counts.getTotalCarts(), counts.getActiveCarts(), counts.getTotalCartItems());
     }
     
     /**
@@ -0,0 +1,443 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.CartItemResponse;
+import com.example.ordermanagement.dto.CartResponse;
+import com.example.ordermanagement.model.Cart;
+import com.example.ordermanagement.model.CartItem;
+import com.example.ordermanagement.model.MenuItem;
+import com.example.ordermanagement.model.Money;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Write-behind store for active carts.
+ *
+ * Carts are loaded from the carts/cart_items tables on first access and then kept in memory keyed
+ * by user ID; all mutations are applied in memory under a per-cart lock. Dirty carts are flushed
+ * on a fixed delay ({@code app.cart.flush-interval-ms}, which bounds how much work a crash can
+ * lose): every mutation since the last flush is coalesced into one rewrite of the cart, and all
+ * carts of a cycle are written with JDBC batches in a single transaction. After a crash, carts
+ * are simply reloaded from the tables on next access.
+ *
+ * Carts are node-local, so a multi-node deployment needs user-sticky routing.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM cart_items WHERE cart_id = ?";
+
+    // Guarded so a menu item or cart deleted in the meantime cannot fail the whole batch
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO cart_items (cart_id, menu_item_id, quantity, unit_price, subtotal, created_at, updated_at) " +
+            "SELECT CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS DECIMAL(10,2)), " +
+            "CAST(? AS DECIMAL(10,2)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP) " +
+            "WHERE EXISTS (SELECT 1 FROM menu_items m WHERE m.id = ?) AND EXISTS (SELECT 1 FROM carts c WHERE c.id = ?)";
+
+    private static final String UPDATE_CART_SQL =
+            "UPDATE carts SET total_amount = ?, total_items = ?, updated_at = ? WHERE id = ?";
+
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleEvictionMillis;
+
+    private final ConcurrentHashMap<Long, ActiveCart> carts = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    public CartStore(CartRepository cartRepository, JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${app.cart.idle-eviction-ms:1800000}") long idleEvictionMillis) {
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleEvictionMillis = idleEvictionMillis;
+    }
+
+    /**
+     * Get the current state of the user's cart, loading or creating it if needed
+     */
+    public CartResponse getCart(User user) {
+        return apply(user, cart -> { });
+    }
+
+    /**
+     * Add a quantity of a menu item, capturing its current price for new lines
+     */
+    public CartResponse addItem(User user, MenuItem menuItem, int quantity) {
+        return apply(user, cart -> cart.add(menuItem, quantity));
+    }
+
+    /**
+     * Set the quantity of a line; zero or less removes it
+     */
+    public CartResponse updateQuantity(User user, Long menuItemId, int quantity) {
+        return apply(user, cart -> {
+            if (quantity <= 0) {
+                cart.remove(menuItemId);
+            } else {
+                cart.setQuantity(menuItemId, quantity);
+            }
+        });
+    }
+
+    public CartResponse removeItem(User user, Long menuItemId) {
+        return apply(user, cart -> cart.remove(menuItemId));
+    }
+
+    public CartResponse clear(User user) {
+        return apply(user, ActiveCart::clear);
+    }
+
+    /**
+     * Check out the user's cart: run the writer (which records the order) and empty the cart rows in
+     * one transaction. The cart lock is held throughout, so the contents cannot change between
+     * reading and converting them; the in-memory cart is cleared only after the commit. The writer
+     * lock is held too, and the emptied cart is marked flushed, so a flush snapshot taken before the
+     * checkout can never write the ordered lines back.
+     */
+    public <T> T checkout(User user, Function<CartResponse, T> writer) {
+        while (true) {
+            ActiveCart cart = acquire(user);
+            // Same lock order as write(): writer lock first, then the cart
+            synchronized (writeLock) {
+                synchronized (cart) {
+                    if (cart.evicted) {
+                        continue;
+                    }
+                    if (cart.lines.isEmpty()) {
+                        throw new RuntimeException("Cart is empty");
+                    }
+                    CartResponse contents = cart.snapshot();
+                    T result = transactionTemplate.execute(status -> {
+                        T written = writer.apply(contents);
+                        jdbcTemplate.update(DELETE_ITEMS_SQL, cart.cartId);
+                        jdbcTemplate.update(UPDATE_CART_SQL, Money.fromCents(0), 0,
+                                Timestamp.valueOf(LocalDateTime.now()), cart.cartId);
+                        return written;
+                    });
+                    // The committed rows are the empty cart; older snapshots are now stale
+                    cart.clear();
+                    cart.flushedVersion = cart.version;
+                    cart.lastAccess = System.currentTimeMillis();
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop a cart from memory without flushing it (e.g. after the row was deleted)
+     */
+    public void evictByCartId(Long cartId) {
+        carts.values().removeIf(cart -> {
+            synchronized (cart) {
+                if (cart.cartId.equals(cartId)) {
+                    cart.evicted = true;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    private CartResponse apply(User user, Consumer<ActiveCart> mutation) {
+        while (true) {
+            ActiveCart cart = acquire(user);
+            synchronized (cart) {
+                // Lost a race with idle eviction; load again
+                if (cart.evicted) {
+                    continue;
+                }
+                mutation.accept(cart);
+                cart.lastAccess = System.currentTimeMillis();
+                return cart.snapshot();
+            }
+        }
+    }
+
+    private ActiveCart acquire(User user) {
+        ActiveCart cart = carts.get(user.getId());
+        if (cart != null) {
+            return cart;
+        }
+        ActiveCart loaded = load(user);
+        ActiveCart existing = carts.putIfAbsent(user.getId(), loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Crash-recovery path: the tables hold every cart as of its last flush
+    private ActiveCart load(User user) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findByUserWithItems(user)
+                    .orElseGet(() -> cartRepository.save(new Cart(user)));
+            ActiveCart activeCart = new ActiveCart(user.getId(), cart.getId());
+            for (CartItem item : cart.getCartItems()) {
+                MenuItem menuItem = item.getMenuItem();
+                activeCart.put(new CartLine(menuItem.getId(), menuItem.getItemName(), menuItem.getImageUrl(),
+                        Money.toCents(item.getUnitPrice()), item.getQuantity(), item.getCreatedAt()));
+            }
+            return activeCart;
+        });
+    }
+
+    /**
+     * Write every dirty cart to the database. Runs on a fixed delay and on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flushDirtyCarts() {
+        long now = System.currentTimeMillis();
+        List<FlushSnapshot> pending = new ArrayList<>();
+
+        for (ActiveCart cart : carts.values()) {
+            synchronized (cart) {
+                if (cart.version != cart.flushedVersion) {
+                    pending.add(cart.flushSnapshot());
+                } else if (now - cart.lastAccess > idleEvictionMillis) {
+                    cart.evicted = true;
+                    carts.remove(cart.userId, cart);
+                }
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            int written = write(pending);
+            logger.debug("Flushed {} carts", written);
+        } catch (DataAccessException e) {
+            // Carts stay dirty and are retried on the next cycle
+            logger.error("Failed to flush {} carts: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Synchronously flush a single user's cart (e.g. before it is read from the tables)
+     */
+    public void flush(Long userId) {
+        ActiveCart cart = carts.get(userId);
+        if (cart == null) {
+            return;
+        }
+        FlushSnapshot snapshot;
+        synchronized (cart) {
+            if (cart.version == cart.flushedVersion) {
+                return;
+            }
+            snapshot = cart.flushSnapshot();
+        }
+        write(List.of(snapshot));
+    }
+
+    /**
+     * Write the snapshots and mark their carts flushed up to their versions; returns how many were written.
+     * Writers are serialized, so a scheduled flush and a synchronous flush never rewrite the same cart
+     * concurrently. A snapshot is taken outside the writer lock, so by the time it gets the lock a newer
+     * snapshot of the same cart may already be written; such a stale snapshot is skipped rather than
+     * written over the newer rows.
+     */
+    private int write(List<FlushSnapshot> pending) {
+        synchronized (writeLock) {
+            List<FlushSnapshot> current = new ArrayList<>(pending.size());
+            for (FlushSnapshot snapshot : pending) {
+                synchronized (snapshot.cart) {
+                    if (snapshot.version > snapshot.cart.flushedVersion) {
+                        current.add(snapshot);
+                    }
+                }
+            }
+            if (current.isEmpty()) {
+                return 0;
+            }
+
+            writeRows(current);
+            // flushedVersion only changes under the writer lock, so it cannot have moved past these versions
+            for (FlushSnapshot snapshot : current) {
+                synchronized (snapshot.cart) {
+                    snapshot.cart.flushedVersion = snapshot.version;
+                }
+            }
+            return current.size();
+        }
+    }
+
+    private void writeRows(List<FlushSnapshot> pending) {
+        List<Object[]> deletes = new ArrayList<>(pending.size());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>(pending.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (FlushSnapshot snapshot : pending) {
+            Long cartId = snapshot.cart.cartId;
+            deletes.add(new Object[] {cartId});
+            for (CartLine line : snapshot.lines) {
+                inserts.add(new Object[] {cartId, line.menuItemId, line.quantity, Money.fromCents(line.unitPriceCents),
+                        Money.fromCents(line.subtotalCents()), Timestamp.valueOf(line.createdAt), now, line.menuItemId, cartId});
+            }
+            updates.add(new Object[] {Money.fromCents(snapshot.totalCents), snapshot.totalItems, now, cartId});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_ITEMS_SQL, deletes);
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, inserts);
+            }
+            jdbcTemplate.batchUpdate(UPDATE_CART_SQL, updates);
+        });
+    }
+
+    /**
+     * In-memory cart; every field is guarded by the instance lock.
+     * Totals are kept in cents and adjusted on every change rather than re-summed.
+     */
+    static class ActiveCart {
+        private final Long userId;
+        private final Long cartId;
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        private int totalItems;
+        private long totalCents;
+        private long version;
+        private long flushedVersion;
+        private long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+
+        ActiveCart(Long userId, Long cartId) {
+            this.userId = userId;
+            this.cartId = cartId;
+        }
+
+        // Used while loading; does not bump the version
+        void put(CartLine line) {
+            lines.put(line.menuItemId, line);
+            adjust(line.quantity, line.subtotalCents());
+        }
+
+        void add(MenuItem menuItem, int quantity) {
+            CartLine line = lines.get(menuItem.getId());
+            if (line == null) {
+                line = new CartLine(menuItem.getId(), menuItem.getItemName(), menuItem.getImageUrl(),
+                        menuItem.getPriceCents(), 0, LocalDateTime.now());
+                lines.put(menuItem.getId(), line);
+            }
+            line.quantity += quantity;
+            adjust(quantity, line.unitPriceCents * quantity);
+            version++;
+        }
+
+        void setQuantity(Long menuItemId, int quantity) {
+            CartLine line = lines.get(menuItemId);
+            if (line != null) {
+                int delta = quantity - line.quantity;
+                line.quantity = quantity;
+                adjust(delta, line.unitPriceCents * delta);
+                version++;
+            }
+        }
+
+        void remove(Long menuItemId) {
+            CartLine line = lines.remove(menuItemId);
+            if (line != null) {
+                adjust(-line.quantity, -line.subtotalCents());
+                version++;
+            }
+        }
+
+        void clear() {
+            if (!lines.isEmpty()) {
+                lines.clear();
+                totalItems = 0;
+                totalCents = 0;
+                version++;
+            }
+        }
+
+        private void adjust(int itemsDelta, long centsDelta) {
+            totalItems += itemsDelta;
+            totalCents += centsDelta;
+        }
+
+        CartResponse snapshot() {
+            List<CartItemResponse> items = new ArrayList<>(lines.size());
+            for (CartLine line : lines.values()) {
+                items.add(new CartItemResponse(line.menuItemId, line.itemName, line.imageUrl,
+                        Money.fromCents(line.unitPriceCents), line.quantity, Money.fromCents(line.subtotalCents())));
+            }
+            return new CartResponse(cartId, userId, items, totalItems, Money.fromCents(totalCents));
+        }
+
+        FlushSnapshot flushSnapshot() {
+            List<CartLine> copy = new ArrayList<>(lines.size());
+            for (CartLine line : lines.values()) {
+                copy.add(line.copy());
+            }
+            return new FlushSnapshot(this, version, copy, totalItems, totalCents);
+        }
+    }
+
+    static class CartLine {
+        private final Long menuItemId;
+        private final String itemName;
+        private final String imageUrl;
+        private final long unitPriceCents;
+        private int quantity;
+        private final LocalDateTime createdAt;
+
+        CartLine(Long menuItemId, String itemName, String imageUrl, long unitPriceCents,
+                 int quantity, LocalDateTime createdAt) {
+            this.menuItemId = menuItemId;
+            this.itemName = itemName;
+            this.imageUrl = imageUrl;
+            this.unitPriceCents = unitPriceCents;
+            this.quantity = quantity;
+            this.createdAt = createdAt != null ? createdAt : LocalDateTime.now();
+        }
+
+        long subtotalCents() {
+            return unitPriceCents * quantity;
+        }
+
+        CartLine copy() {
+            return new CartLine(menuItemId, itemName, imageUrl, unitPriceCents, quantity, createdAt);
+        }
+    }
+
+    private static class FlushSnapshot {
+        private final ActiveCart cart;
+        private final long version;
+        private final List<CartLine> lines;
+        private final int totalItems;
+        private final long totalCents;
+
+        FlushSnapshot(ActiveCart cart, long version, List<CartLine> lines, int totalItems, long totalCents) {
+            this.cart = cart;
+            this.version = version;
+            this.lines = lines;
+            this.totalItems = totalItems;
+            this.totalCents = totalCents;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.model.Order;
+import com.example.ordermanagement.repository.CheckoutRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates checkout retries carrying the same idempotency key.
+ *
+ * Recent keys live in a bounded in-memory window holding the (possibly still running) result, so a
+ * retry that races the original waits for it instead of starting a second checkout. Behind the
+ * window, the checkout_requests table is written in the same transaction as the order; its unique
+ * (user_id, idempotency_key) constraint catches retries that miss the window (other node, restart,
+ * eviction), and the loser of such a race returns the winner's order. Failed attempts are not
+ * remembered, so they can be retried.
+ */
+@Component
+public class CheckoutIdempotency {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutIdempotency.class);
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final CheckoutRequestRepository checkoutRequestRepository;
+    private final long retentionMillis;
+    private final Map<String, CompletableFuture<Order>> window;
+
+    public CheckoutIdempotency(CheckoutRequestRepository checkoutRequestRepository,
+                               @Value("${app.checkout.idempotency-window-size:10000}") int windowSize,
+                               @Value("${app.checkout.idempotency-retention-ms:86400000}") long retentionMillis) {
+        this.checkoutRequestRepository = checkoutRequestRepository;
+        this.retentionMillis = retentionMillis;
+        this.window = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Order>> eldest) {
+                return size() > windowSize;
+            }
+        };
+    }
+
+    /**
+     * Run the checkout once per (user, key). The checkout must record the key in its own transaction.
+     */
+    public Order execute(Long userId, String key, Supplier<Order> checkout) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String windowKey = userId + ":" + key;
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        CompletableFuture<Order> existing;
+        synchronized (window) {
+            existing = window.putIfAbsent(windowKey, result);
+        }
+        if (existing != null) {
+            logger.debug("Replaying checkout for user {} from the in-memory window", userId);
+            return await(existing);
+        }
+
+        try {
+            Order order = findRecorded(userId, key).orElseGet(() -> {
+                try {
+                    return checkout.get();
+                } catch (DataIntegrityViolationException e) {
+                    // A racing retry recorded the key first; return its order
+                    return findRecorded(userId, key).orElseThrow(() -> e);
+                }
+            });
+            result.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            synchronized (window) {
+                window.remove(windowKey, result);
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Optional<Order> findRecorded(Long userId, String key) {
+        return checkoutRequestRepository.findOrderByUserIdAndKey(userId, key);
+    }
+
+    private Order await(CompletableFuture<Order> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Purge keys older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.checkout.idempotency-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredKeys() {
+        int purged = checkoutRequestRepository.deleteCreatedBefore(
+                LocalDateTime.now().minus(Duration.ofMillis(retentionMillis)));
+        if (purged > 0) {
+            logger.info("Purged {} expired checkout idempotency keys", purged);
+        }
+    }
+}
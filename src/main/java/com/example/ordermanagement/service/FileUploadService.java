@@ -1,24 +1,82 @@
 package com.example.ordermanagement.service;
 
 import com.example.ordermanagement.config.FileUploadConfig;
+import com.example.ordermanagement.model.ImageVariant;
+import com.example.ordermanagement.repository.MenuItemRepository;
+import com.example.ordermanagement.repository.ShopRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+/**
+ * Content-addressed store for uploaded images.
+ *
+ * An upload is hashed (SHA-256) while it streams to a temporary file and then kept once per content
+ * under {@code blobs/<h0h1>/<h2h3>/<hash>.<ext>}, so the same photo uploaded for many menu items or
+ * re-uploaded on every edit is stored once, and a URL always names the same bytes. Shops and menu
+ * items are the references: a blob is only deleted when no row points at it any more. A blob that was
+ * just uploaded may not be referenced yet, so blobs younger than {@code app.upload.blob-grace-minutes}
+ * are never deleted; a nightly sweep removes whatever was left unreferenced.
+ * Files uploaded before the store existed keep their URLs and are deleted directly.
+ */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class FileUploadService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileUploadService.class);
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+    private static final String BLOBS = "blobs";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Long enough for every signature checked in detectExtension
+    private static final int SIGNATURE_LENGTH = 12;
+
     @Autowired
     private FileUploadConfig fileUploadConfig;
 
-    public String uploadFile(MultipartFile file, String subfolder) throws IOException {
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Value("${app.upload.max-image-bytes:10485760}")
+    private long maxImageBytes;
+
+    @Value("${app.upload.blob-grace-minutes:60}")
+    private long blobGraceMinutes;
+
+    /**
+     * Store an image and return its URL; identical content always gets the same URL
+     */
+    public String uploadFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
@@ -28,37 +86,169 @@ public class FileUploadService {
         if (contentType == null || !isValidImageType(contentType)) {
             throw new IllegalArgumentException("Invalid file type. Only images are allowed.");
         }
+        if (file.getSize() > maxImageBytes) {
+            throw new MaxUploadSizeExceededException(maxImageBytes);
+        }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-        // Create upload directory path
-        Path uploadPath = Paths.get(fileUploadConfig.getUploadDir(), subfolder);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (InputStream input = file.getInputStream()) {
+            return storeImage(input);
         }
+    }
 
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Store an image streamed from the client and return its URL.
+     *
+     * The type is taken from the leading magic bytes rather than from what the client claims, and
+     * the size limit is enforced while reading, so an oversized or non-image body is rejected without
+     * being buffered. Only one fixed-size buffer is held per upload; the bytes are written once, to a
+     * temporary file next to the store, and renamed into place.
+     */
+    public String storeImage(InputStream input) throws IOException {
+        Path root = Paths.get(fileUploadConfig.getUploadDir());
+        Path temporaryDir = Files.createDirectories(root.resolve(BLOBS).resolve("tmp"));
+        Path temporary = Files.createTempFile(temporaryDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            String extension;
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                int headerLength = input.readNBytes(buffer, 0, SIGNATURE_LENGTH);
+                if (headerLength == 0) {
+                    throw new IllegalArgumentException("File is empty");
+                }
+                extension = detectExtension(buffer, headerLength);
+                if (extension == null) {
+                    throw new IllegalArgumentException("Invalid file type. Only JPEG, PNG, GIF and WebP images are allowed.");
+                }
+                long total = headerLength;
+                digest.update(buffer, 0, headerLength);
+                output.write(buffer, 0, headerLength);
 
-        // Return relative URL path
-        return "/uploads/" + subfolder + "/" + uniqueFilename;
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxImageBytes) {
+                        throw new MaxUploadSizeExceededException(maxImageBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    output.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String relativePath = blobPath(hash, extension);
+            Path target = root.resolve(relativePath);
+            if (Files.exists(target)) {
+                // Already stored; restart its grace period so a concurrent delete leaves it alone
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            String fileUrl = UPLOADS_PREFIX + relativePath;
+            // Thumbnail and card variants are generated in the background
+            imageVariantService.generateVariants(fileUrl);
+            return fileUrl;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public long getMaxImageBytes() {
+        return maxImageBytes;
     }
 
+    /**
+     * Delete an uploaded file once no shop or menu item references it any more
+     */
     public void deleteFile(String fileUrl) {
-        if (fileUrl != null && fileUrl.startsWith("/uploads/")) {
+        if (fileUrl == null || !fileUrl.startsWith(UPLOADS_PREFIX)) {
+            return;
+        }
+        if (isBlob(fileUrl) && shopRepository.countByImageUrl(fileUrl) + menuItemRepository.countByImageUrl(fileUrl) > 0) {
+            logger.debug("Keeping {}: still referenced", fileUrl);
+            return;
+        }
+        try {
+            Path filePath = Paths.get(fileUploadConfig.getUploadDir(), fileUrl.substring(UPLOADS_PREFIX.length()));
+            if (isBlob(fileUrl) && isWithinGracePeriod(filePath)) {
+                return;
+            }
+            Files.deleteIfExists(filePath);
+            imageVariantService.deleteVariants(fileUrl);
+        } catch (IOException e) {
+            logger.warn("Failed to delete file: {} - {}", fileUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove blobs nothing references, e.g. those of deleted menu items
+     */
+    @Scheduled(cron = "${app.upload.blob-sweep-cron:0 30 3 * * *}")
+    public void deleteUnreferencedBlobs() {
+        Path blobRoot = Paths.get(fileUploadConfig.getUploadDir(), BLOBS);
+        if (!Files.isDirectory(blobRoot)) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>(shopRepository.findDistinctImageUrls());
+        referenced.addAll(menuItemRepository.findDistinctImageUrls());
+
+        List<Path> unreferenced;
+        try (Stream<Path> files = Files.walk(blobRoot)) {
+            unreferenced = files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getParent().equals(blobRoot.resolve("tmp")))
+                    .filter(path -> ImageVariant.originalOf(path.getFileName().toString()) == null)
+                    .filter(path -> !referenced.contains(urlOf(blobRoot, path)))
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Failed to scan {} for unreferenced blobs: {}", blobRoot, e.getMessage());
+            return;
+        }
+        int deleted = 0;
+        for (Path blob : unreferenced) {
             try {
-                String relativePath = fileUrl.substring("/uploads/".length());
-                Path filePath = Paths.get(fileUploadConfig.getUploadDir(), relativePath);
-                Files.deleteIfExists(filePath);
+                if (!isWithinGracePeriod(blob)) {
+                    Files.deleteIfExists(blob);
+                    imageVariantService.deleteVariants(urlOf(blobRoot, blob));
+                    deleted++;
+                }
             } catch (IOException e) {
-                // Log error but don't throw exception
-                System.err.println("Failed to delete file: " + fileUrl + " - " + e.getMessage());
+                logger.warn("Failed to delete blob {}: {}", blob, e.getMessage());
             }
         }
+        if (deleted > 0) {
+            logger.info("Deleted {} unreferenced upload blobs", deleted);
+        }
+    }
+
+    private boolean isWithinGracePeriod(Path filePath) throws IOException {
+        if (!Files.exists(filePath)) {
+            return false;
+        }
+        Instant modified = Files.getLastModifiedTime(filePath).toInstant();
+        return modified.isAfter(Instant.now().minus(Duration.ofMinutes(blobGraceMinutes)));
+    }
+
+    private static boolean isBlob(String fileUrl) {
+        return fileUrl.startsWith(UPLOADS_PREFIX + BLOBS + "/");
+    }
+
+    private static String urlOf(Path blobRoot, Path blob) {
+        return UPLOADS_PREFIX + BLOBS + "/" + blobRoot.relativize(blob).toString().replace('\\', '/');
+    }
+
+    // Two levels of 256 directories keep every directory small
+    private static String blobPath(String hash, String extension) {
+        return BLOBS + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private boolean isValidImageType(String contentType) {
@@ -69,10 +259,32 @@ public class FileUploadService {
                contentType.equals("image/webp");
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.lastIndexOf('.') == -1) {
-            return "";
+    // File extension for the image format the leading bytes identify, or null for anything else
+    static String detectExtension(byte[] header, int length) {
+        if (startsWith(header, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return ".jpg";
+        }
+        if (startsWith(header, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return ".png";
+        }
+        if (startsWith(header, length, 0, 'G', 'I', 'F', '8') && length > 4 && (header[4] == '7' || header[4] == '9')) {
+            return ".gif";
+        }
+        if (startsWith(header, length, 0, 'R', 'I', 'F', 'F') && startsWith(header, length, 8, 'W', 'E', 'B', 'P')) {
+            return ".webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, int... signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
         }
-        return filename.substring(filename.lastIndexOf('.'));
+        return true;
     }
 }
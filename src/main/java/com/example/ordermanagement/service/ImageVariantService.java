@@ -0,0 +1,382 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.config.FileUploadConfig;
+import com.example.ordermanagement.model.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Generates the {@link ImageVariant}s of uploaded images off the request thread.
+ *
+ * Work runs on a fixed pool with a bounded queue; when the queue is full an upload is skipped and
+ * keeps being served at full size until the next startup. The startup scan walks the upload directory
+ * on a background thread and feeds every original that is missing a variant into the queue, waiting
+ * for room rather than skipping, so any number of originals is caught up. Variants are written to a
+ * temporary file and moved into place, so a half-written variant is never served. ImageIO has no WebP
+ * codec, so WebP originals (and anything else it cannot decode) get no variants. Neither do images
+ * larger than {@code app.image.max-pixels}: their size is read from the header first, so such an image
+ * is never decoded into memory. Such originals get a marker file instead, so later scans skip them.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final FileUploadConfig fileUploadConfig;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    // Originals queued or being processed, so a startup scan and an upload never write the same files
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+
+    public ImageVariantService(FileUploadConfig fileUploadConfig,
+                               @Value("${app.image.threads:2}") int threads,
+                               @Value("${app.image.queue-capacity:100}") int queueCapacity,
+                               @Value("${app.image.jpeg-quality:0.8}") float jpegQuality,
+                               @Value("${app.image.max-pixels:25000000}") long maxPixels) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Resizing is CPU-bound; keep request threads ahead of it
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue generation of all variants of an uploaded image ("/uploads/..." URL)
+     */
+    public void generateVariants(String imageUrl) {
+        Path original = resolve(imageUrl);
+        // A deduplicated upload may already have its variants
+        if (original != null && isMissingVariant(original)) {
+            submit(original);
+        }
+    }
+
+    /**
+     * Delete the variants of an uploaded image
+     */
+    public void deleteVariants(String imageUrl) {
+        Path original = resolve(imageUrl);
+        if (original == null) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                Files.deleteIfExists(variantPath(original, variant));
+            } catch (IOException e) {
+                logger.warn("Failed to delete {} variant of {}: {}", variant, imageUrl, e.getMessage());
+            }
+        }
+        try {
+            Files.deleteIfExists(noVariantsMarker(original));
+        } catch (IOException e) {
+            logger.warn("Failed to delete the no-variants marker of {}: {}", imageUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue every upload that is missing a variant, e.g. after a restart or a full queue. The scan runs
+     * on its own thread and waits for room in the queue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateMissingVariants() {
+        Thread scan = new Thread(this::scanForMissingVariants, "image-variants-scan");
+        scan.setDaemon(true);
+        scan.start();
+    }
+
+    void scanForMissingVariants() {
+        Path uploadDir = Paths.get(fileUploadConfig.getUploadDir());
+        if (!Files.isDirectory(uploadDir)) {
+            return;
+        }
+        // Workers must be running, since the scan puts work straight into the queue
+        executor.prestartAllCoreThreads();
+        long queued = 0;
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            Iterator<Path> originals = files.filter(Files::isRegularFile)
+                    .filter(path -> isOriginal(path) && isMissingVariant(path))
+                    .iterator();
+            while (originals.hasNext()) {
+                if (!enqueue(originals.next())) {
+                    return;
+                }
+                queued++;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to scan {} for missing image variants: {}", uploadDir, e.getMessage());
+        } finally {
+            if (queued > 0) {
+                logger.info("Queued variant generation for {} uploaded images", queued);
+            }
+        }
+    }
+
+    // Waits for room in the queue; returns false once the service is shutting down
+    private boolean enqueue(Path original) {
+        if (!pending.add(original)) {
+            return true;
+        }
+        Runnable task = task(original);
+        try {
+            while (!executor.isShutdown()) {
+                if (executor.getQueue().offer(task, 1, TimeUnit.SECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending.remove(original);
+        return false;
+    }
+
+    private void submit(Path original) {
+        if (!pending.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(task(original));
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            rejected.increment();
+            logger.warn("Image variant queue is full, {} is served at full size until the next restart",
+                    original.getFileName());
+        }
+    }
+
+    private Runnable task(Path original) {
+        return () -> {
+            try {
+                writeVariants(original);
+            } finally {
+                pending.remove(original);
+            }
+        };
+    }
+
+    private void writeVariants(Path original) {
+        BufferedImage source;
+        try {
+            source = read(original);
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            logger.warn("Failed to decode {}: {}", original.getFileName(), e.getMessage());
+            source = null;
+        }
+        if (source == null) {
+            markNoVariants(original);
+            return;
+        }
+        try {
+            String format = ImageVariant.formatFor(original.getFileName().toString());
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = variantPath(original, variant);
+                Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+                write(scale(source, variant, format.equals("png")), format, temporary);
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            generated.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            logger.warn("Failed to generate variants of {}: {}", original.getFileName(), e.getMessage());
+        }
+    }
+
+    private static void markNoVariants(Path original) {
+        if (!Files.exists(original)) {
+            return;
+        }
+        try {
+            Files.createFile(noVariantsMarker(original));
+        } catch (FileAlreadyExistsException e) {
+            // Marked by an earlier attempt
+        } catch (IOException e) {
+            logger.debug("Failed to mark {} as having no variants: {}", original.getFileName(), e.getMessage());
+        }
+    }
+
+    // Decodes the image, or returns null when ImageIO cannot read its format or it has more than maxPixels
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                logger.debug("No variants for {}: format not supported", original.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Width and height come from the header; a decoded image takes 4 bytes per pixel
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    oversized.increment();
+                    logger.warn("No variants for {}: {}x{} is larger than {} pixels", original.getFileName(),
+                            width, height, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image inside the variant's box, halving in steps so bilinear sampling stays smooth
+    private static BufferedImage scale(BufferedImage source, ImageVariant variant, boolean keepAlpha) {
+        double ratio = Math.min(1.0, Math.min((double) variant.getMaxWidth() / source.getWidth(),
+                (double) variant.getMaxHeight() / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!keepAlpha) {
+                    // JPEG has no transparency; flatten onto white rather than black
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        if (format.equals("png")) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path resolve(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("/uploads/")) {
+            return null;
+        }
+        return Paths.get(fileUploadConfig.getUploadDir(), imageUrl.substring("/uploads/".length()));
+    }
+
+    private static Path variantPath(Path original, ImageVariant variant) {
+        return original.resolveSibling(variant.fileNameFor(original.getFileName().toString()));
+    }
+
+    private static Path noVariantsMarker(Path original) {
+        return original.resolveSibling(ImageVariant.noVariantsMarkerFor(original.getFileName().toString()));
+    }
+
+    private static boolean isOriginal(Path path) {
+        String fileName = path.getFileName().toString();
+        return ImageVariant.originalOf(fileName) == null && !fileName.endsWith(".tmp");
+    }
+
+    private static boolean isMissingVariant(Path original) {
+        if (Files.exists(noVariantsMarker(original))) {
+            return false;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(variantPath(original, variant))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pipeline statistics
+     */
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getOversizedCount() {
+        return oversized.sum();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
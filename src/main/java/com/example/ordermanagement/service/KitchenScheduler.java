@@ -0,0 +1,325 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.model.OrderStatus;
+import com.example.ordermanagement.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process kitchen queue per shop with preparation-time-aware ETAs.
+ *
+ * A shop's kitchen has {@code kitchenCapacity} stations, each preparing up to {@code items-per-station}
+ * items side by side. A placed order becomes one ticket per shop it ordered from; the ticket takes as
+ * long as its slowest item, once per round of items its station needs, and goes to the station that
+ * frees up first, i.e. the one giving it the earliest estimated completion. ETAs are plain arithmetic
+ * over that plan, so reading them never touches the database.
+ *
+ * The queue is an estimate and only ever read: it never changes order statuses, which are left to
+ * the shop. A ticket stays queued (shown as due once its estimate has passed) until its order is no
+ * longer PLACED or PREPARING, which a periodic check picks up. The queue is node-local; open orders
+ * are re-queued from the database on startup.
+ */
+@Component
+public class KitchenScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenScheduler.class);
+
+    static final List<OrderStatus> OPEN_STATUSES = List.of(OrderStatus.PLACED, OrderStatus.PREPARING);
+
+    // Keeps the IN list of the open order check within what every database accepts
+    private static final int CHECK_BATCH_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+    private final long defaultPrepMillis;
+    private final int itemsPerStation;
+
+    private final ConcurrentHashMap<Long, ShopKitchen> kitchens = new ConcurrentHashMap<>();
+    // Shops holding a ticket of each queued order
+    private final ConcurrentHashMap<Long, Set<Long>> shopsByOrder = new ConcurrentHashMap<>();
+
+    public KitchenScheduler(OrderRepository orderRepository,
+                            @Value("${app.kitchen.default-prep-minutes:15}") int defaultPrepMinutes,
+                            @Value("${app.kitchen.items-per-station:4}") int itemsPerStation) {
+        this.orderRepository = orderRepository;
+        this.defaultPrepMillis = defaultPrepMinutes * 60_000L;
+        this.itemsPerStation = Math.max(1, itemsPerStation);
+    }
+
+    /**
+     * Queue a placed order, one ticket per shop
+     */
+    public void accept(Long orderId, Collection<TicketRequest> requests) {
+        queue(orderId, requests, System.currentTimeMillis());
+    }
+
+    /**
+     * Re-queue the orders still open in the database, in the order they were placed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueOpenOrders() {
+        // Rows are [orderId, shopId, kitchenCapacity, preparationTimeMinutes, quantity, createdAt]
+        Map<Long, Map<Long, TicketRequest>> requestsByOrder = new LinkedHashMap<>();
+        Map<Long, Long> placedAt = new LinkedHashMap<>();
+        for (Object[] row : orderRepository.findLinesOfOrdersWithStatus(OPEN_STATUSES)) {
+            Long orderId = (Long) row[0];
+            Long shopId = (Long) row[1];
+            requestsByOrder.computeIfAbsent(orderId, id -> new LinkedHashMap<>())
+                    .computeIfAbsent(shopId, id -> new TicketRequest(id, (Integer) row[2]))
+                    .addLine((Integer) row[3], (Integer) row[4]);
+            placedAt.putIfAbsent(orderId, toEpochMillis((LocalDateTime) row[5]));
+        }
+        for (Map.Entry<Long, Map<Long, TicketRequest>> order : requestsByOrder.entrySet()) {
+            queue(order.getKey(), order.getValue().values(), placedAt.get(order.getKey()));
+        }
+        if (!requestsByOrder.isEmpty()) {
+            logger.info("Re-queued {} open orders in the kitchen queue", requestsByOrder.size());
+        }
+    }
+
+    private void queue(Long orderId, Collection<TicketRequest> requests, long placedAt) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Set<Long> shopIds = ConcurrentHashMap.newKeySet();
+        // Already queued, by checkout or by the startup re-queue
+        if (shopsByOrder.putIfAbsent(orderId, shopIds) != null) {
+            return;
+        }
+        for (TicketRequest request : requests) {
+            Ticket ticket = new Ticket(orderId, request.itemCount, durationOf(request));
+            ShopKitchen kitchen = kitchens.computeIfAbsent(request.shopId,
+                    id -> new ShopKitchen(Math.max(1, request.capacity)));
+            synchronized (kitchen) {
+                kitchen.tickets.add(ticket);
+                kitchen.assign(ticket, placedAt);
+            }
+            shopIds.add(request.shopId);
+        }
+        logger.debug("Queued order {} in {} kitchens", orderId, requests.size());
+    }
+
+    // The slowest item, once per round of items a station prepares side by side
+    private long durationOf(TicketRequest request) {
+        long prepMillis = request.prepMinutes > 0 ? request.prepMinutes * 60_000L : defaultPrepMillis;
+        int rounds = Math.max(1, (request.itemCount + itemsPerStation - 1) / itemsPerStation);
+        return prepMillis * rounds;
+    }
+
+    /**
+     * Apply a new kitchen capacity, re-planning tickets that have not started yet
+     */
+    public void updateCapacity(Long shopId, Integer capacity) {
+        ShopKitchen kitchen = kitchens.get(shopId);
+        if (kitchen == null || capacity == null) {
+            return;
+        }
+        synchronized (kitchen) {
+            if (kitchen.stationFreeAt.length == capacity) {
+                return;
+            }
+            kitchen.replan(Math.max(1, capacity), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Drop an order's tickets once it is no longer open, moving later tickets up
+     */
+    public void remove(Long orderId) {
+        Set<Long> shopIds = shopsByOrder.remove(orderId);
+        if (shopIds == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Long shopId : shopIds) {
+            ShopKitchen kitchen = kitchens.get(shopId);
+            if (kitchen == null) {
+                continue;
+            }
+            synchronized (kitchen) {
+                kitchen.tickets.removeIf(ticket -> ticket.orderId.equals(orderId));
+                kitchen.replan(kitchen.stationFreeAt.length, now);
+            }
+        }
+    }
+
+    /**
+     * Drop the tickets of queued orders whose status has moved on (read-only check)
+     */
+    @Scheduled(fixedDelayString = "${app.kitchen.check-ms:30000}")
+    public void removeClosedOrders() {
+        List<Long> queued = new ArrayList<>(shopsByOrder.keySet());
+        try {
+            for (int from = 0; from < queued.size(); from += CHECK_BATCH_SIZE) {
+                List<Long> batch = queued.subList(from, Math.min(from + CHECK_BATCH_SIZE, queued.size()));
+                Set<Long> open = new HashSet<>(orderRepository.findIdsWithStatus(batch, OPEN_STATUSES));
+                for (Long orderId : batch) {
+                    if (!open.contains(orderId)) {
+                        remove(orderId);
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            // Closed orders linger until the next check
+            logger.warn("Failed to check the kitchen queue against order statuses: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Current queue of a shop with live ETAs, in the order the tickets were accepted
+     */
+    public List<TicketView> getQueue(Long shopId) {
+        ShopKitchen kitchen = kitchens.get(shopId);
+        if (kitchen == null) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (kitchen) {
+            List<TicketView> views = new ArrayList<>(kitchen.tickets.size());
+            for (Ticket ticket : kitchen.tickets) {
+                views.add(new TicketView(ticket, now));
+            }
+            return views;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * What one order needs from one shop; built up line by line at checkout
+     */
+    public static class TicketRequest {
+        private final Long shopId;
+        private final int capacity;
+        private int prepMinutes;
+        private int itemCount;
+
+        public TicketRequest(Long shopId, Integer capacity) {
+            this.shopId = shopId;
+            this.capacity = capacity != null ? capacity : 1;
+        }
+
+        public void addLine(Integer preparationTimeMinutes, int quantity) {
+            if (preparationTimeMinutes != null) {
+                prepMinutes = Math.max(prepMinutes, preparationTimeMinutes);
+            }
+            itemCount += quantity;
+        }
+    }
+
+    /**
+     * Read-only view of a queued ticket for the shop dashboard; the status is estimated
+     */
+    public static class TicketView {
+        private final Long orderId;
+        private final int itemCount;
+        private final boolean preparing;
+        private final boolean due;
+        private final LocalDateTime startAt;
+        private final LocalDateTime readyAt;
+        private final long etaMinutes;
+
+        TicketView(Ticket ticket, long now) {
+            this.orderId = ticket.orderId;
+            this.itemCount = ticket.itemCount;
+            this.preparing = ticket.startAt <= now;
+            this.due = ticket.readyAt <= now;
+            this.startAt = toLocalDateTime(ticket.startAt);
+            this.readyAt = toLocalDateTime(ticket.readyAt);
+            this.etaMinutes = Math.max(0, (ticket.readyAt - now + 59_999) / 60_000);
+        }
+
+        private static LocalDateTime toLocalDateTime(long epochMillis) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        }
+
+        public Long getOrderId() { return orderId; }
+        public int getItemCount() { return itemCount; }
+        public boolean isPreparing() { return preparing; }
+        public boolean isDue() { return due; }
+        public String getStatus() { return due ? "Due" : preparing ? "Preparing" : "Queued"; }
+        public LocalDateTime getStartAt() { return startAt; }
+        public LocalDateTime getReadyAt() { return readyAt; }
+        public long getEtaMinutes() { return etaMinutes; }
+    }
+
+    /**
+     * One shop's stations and open tickets; guarded by the instance lock
+     */
+    static class ShopKitchen {
+        private long[] stationFreeAt;
+        private final List<Ticket> tickets = new ArrayList<>();
+
+        ShopKitchen(int capacity) {
+            this.stationFreeAt = new long[capacity];
+        }
+
+        // Put the ticket on the station that frees up first
+        void assign(Ticket ticket, long now) {
+            int station = earliestStation();
+            ticket.startAt = Math.max(now, stationFreeAt[station]);
+            ticket.readyAt = ticket.startAt + ticket.durationMillis;
+            stationFreeAt[station] = ticket.readyAt;
+        }
+
+        // Rebuild the stations for a capacity; tickets estimated to have started keep their slot
+        void replan(int capacity, long now) {
+            stationFreeAt = new long[capacity];
+            List<Ticket> waiting = new ArrayList<>();
+            for (Ticket ticket : tickets) {
+                if (ticket.startAt <= now) {
+                    int station = earliestStation();
+                    stationFreeAt[station] = Math.max(stationFreeAt[station], ticket.readyAt);
+                } else {
+                    waiting.add(ticket);
+                }
+            }
+            for (Ticket ticket : waiting) {
+                assign(ticket, now);
+            }
+        }
+
+        private int earliestStation() {
+            int station = 0;
+            for (int i = 1; i < stationFreeAt.length; i++) {
+                if (stationFreeAt[i] < stationFreeAt[station]) {
+                    station = i;
+                }
+            }
+            return station;
+        }
+    }
+
+    static class Ticket {
+        private final Long orderId;
+        private final int itemCount;
+        private final long durationMillis;
+        private long startAt;
+        private long readyAt;
+
+        Ticket(Long orderId, int itemCount, long durationMillis) {
+            this.orderId = orderId;
+            this.itemCount = itemCount;
+            this.durationMillis = durationMillis;
+        }
+    }
+}
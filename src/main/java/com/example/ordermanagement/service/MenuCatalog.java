@@ -0,0 +1,223 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.MenuItemResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, versioned snapshot of the menu catalog used by the customer dashboard.
+ *
+ * Readers get the current {@link Snapshot} with a single volatile read and never lock.
+ * Writers build a new snapshot from the previous one plus the change and swap it in
+ * atomically, so a reader always sees either the old or the new catalog, never a mix.
+ * Changes made inside a transaction are applied only after it commits.
+ *
+ * A load reads the whole catalog while the application already accepts writes, so changes that
+ * commit while it runs are recorded and replayed on top of the loaded items. Commit callbacks can run
+ * out of order, so an item is only replaced by a version with the same or a later {@code updatedAt}.
+ */
+@Component
+public class MenuCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    // Serializes loads, so that only one records changes at a time
+    private final Object loadLock = new Object();
+    // Changes committed since the running load started reading, or null; guarded by this
+    private List<UnaryOperator<Map<Long, MenuItemResponse>>> changesDuringLoad;
+
+    /**
+     * Get the current snapshot (lock-free)
+     */
+    public Snapshot getSnapshot() {
+        return current.get();
+    }
+
+    public boolean isLoaded() {
+        return current.get().getVersion() > 0;
+    }
+
+    /**
+     * Replace the whole catalog with what the query reads, e.g. on startup. Changes that commit while
+     * the query runs are applied on top.
+     */
+    public void load(Supplier<? extends Collection<MenuItemResponse>> query) {
+        synchronized (loadLock) {
+            synchronized (this) {
+                changesDuringLoad = new ArrayList<>();
+            }
+            try {
+                Map<Long, MenuItemResponse> byId = new TreeMap<>();
+                for (MenuItemResponse item : query.get()) {
+                    byId.put(item.getId(), item);
+                }
+                Snapshot loaded;
+                int replayed;
+                synchronized (this) {
+                    for (UnaryOperator<Map<Long, MenuItemResponse>> change : changesDuringLoad) {
+                        byId = change.apply(byId);
+                    }
+                    replayed = changesDuringLoad.size();
+                    Map<Long, MenuItemResponse> items = byId;
+                    loaded = current.updateAndGet(previous -> new Snapshot(previous.getVersion() + 1, items));
+                }
+                logger.info("Loaded menu catalog version {} with {} items ({} changes replayed)",
+                        loaded.getVersion(), byId.size(), replayed);
+            } finally {
+                synchronized (this) {
+                    changesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Add or replace a single menu item
+     */
+    public void upsert(MenuItemResponse item) {
+        apply(items -> {
+            items.merge(item.getId(), item, MenuCatalog::newer);
+            return items;
+        });
+    }
+
+    /**
+     * Add or replace several menu items as one change, e.g. a bulk import
+     */
+    public void upsertAll(Collection<MenuItemResponse> added) {
+        apply(items -> {
+            for (MenuItemResponse item : added) {
+                items.merge(item.getId(), item, MenuCatalog::newer);
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Remove a single menu item
+     */
+    public void remove(Long menuItemId) {
+        apply(items -> {
+            items.remove(menuItemId);
+            return items;
+        });
+    }
+
+    /**
+     * Remove all menu items of a shop
+     */
+    public void removeShop(Long shopId) {
+        apply(items -> {
+            items.values().removeIf(item -> shopId.equals(item.getShopId()));
+            return items;
+        });
+    }
+
+    /**
+     * Update the denormalized shop name on all items of a shop
+     */
+    public void renameShop(Long shopId, String shopName) {
+        apply(items -> {
+            items.replaceAll((id, item) -> shopId.equals(item.getShopId()) && !shopName.equals(item.getShopName())
+                    ? withShopName(item, shopName)
+                    : item);
+            return items;
+        });
+    }
+
+    // Apply a change now, or after commit when called inside a transaction
+    private void apply(UnaryOperator<Map<Long, MenuItemResponse>> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swap(change);
+                }
+            });
+        } else {
+            swap(change);
+        }
+    }
+
+    // Writers are serialized, so a change is either recorded for a running load or already in its query
+    private synchronized void swap(UnaryOperator<Map<Long, MenuItemResponse>> change) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(change);
+        }
+        Snapshot previous = current.get();
+        // Committed before the initial load started reading, so the load picks it up itself
+        if (previous.getVersion() == 0) {
+            return;
+        }
+        current.set(new Snapshot(previous.getVersion() + 1, change.apply(new TreeMap<>(previous.items))));
+    }
+
+    // Keeps the cached item when the incoming one is older, e.g. from a commit callback that ran late
+    private static MenuItemResponse newer(MenuItemResponse cached, MenuItemResponse incoming) {
+        if (cached.getUpdatedAt() != null && incoming.getUpdatedAt() != null
+                && cached.getUpdatedAt().isAfter(incoming.getUpdatedAt())) {
+            return cached;
+        }
+        return incoming;
+    }
+
+    private MenuItemResponse withShopName(MenuItemResponse item, String shopName) {
+        return new MenuItemResponse(
+                item.getId(),
+                item.getItemName(),
+                item.getDescription(),
+                item.getPrice(),
+                item.getCategory(),
+                item.getIsAvailable(),
+                item.getIsVegetarian(),
+                item.getIsVegan(),
+                item.getPreparationTimeMinutes(),
+                item.getImageUrl(),
+                item.getCreatedAt(),
+                item.getUpdatedAt(),
+                item.getShopId(),
+                shopName
+        );
+    }
+
+    /**
+     * Immutable catalog version. Items are shared between snapshots and must be treated as read-only.
+     */
+    public static class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, Collections.emptyMap());
+
+        private final long version;
+        private final Map<Long, MenuItemResponse> items;
+        private final List<MenuItemResponse> availableItems;
+
+        Snapshot(long version, Map<Long, MenuItemResponse> items) {
+            this.version = version;
+            this.items = Collections.unmodifiableMap(items);
+            this.availableItems = items.values().stream()
+                    .filter(item -> Boolean.TRUE.equals(item.getIsAvailable()))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        public long getVersion() { return version; }
+        public MenuItemResponse getItem(Long id) { return items.get(id); }
+        public Collection<MenuItemResponse> getItems() { return items.values(); }
+        public List<MenuItemResponse> getAvailableItems() { return availableItems; }
+    }
+}
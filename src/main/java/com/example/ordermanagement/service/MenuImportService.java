@@ -0,0 +1,581 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.MenuItemRequest;
+import com.example.ordermanagement.dto.MenuItemResponse;
+import com.example.ordermanagement.model.MenuCategory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk import of a shop's menu from CSV or NDJSON.
+ *
+ * The file is parsed while it streams in; each row is validated against the same constraints as the
+ * menu item form and checked for a unique name against the shop's existing names, loaded once, plus
+ * the names imported so far. Valid rows are written with JDBC batches, one short transaction per
+ * batch, so no connection is held while the client is still sending. Invalid rows are skipped and
+ * reported with their line number; only the first {@code app.menu-import.max-errors} are listed.
+ *
+ * Batches are committed as they fill, so an import that cannot finish (the file is malformed or cut
+ * off, exceeds {@code app.menu-import.max-rows}, or a batch fails to insert) keeps the rows committed
+ * so far: it stops there and reports the failure alongside the counts instead of throwing.
+ *
+ * CSV files need a header row; columns and NDJSON fields use the {@link MenuItemRequest} names
+ * ({@code itemName}, {@code price}, {@code category}, ...), matched ignoring case, '_' and '-'.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+public class MenuImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportService.class);
+
+    private static final String INSERT_MENU_ITEM_SQL =
+            "INSERT INTO menu_items (shop_id, item_name, description, price, category, is_available, is_vegetarian, " +
+            "is_vegan, preparation_time_minutes, image_url, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MenuCatalog menuCatalog;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxErrors;
+
+    public MenuImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, Validator validator, MenuCatalog menuCatalog,
+                             @Value("${app.menu-import.batch-size:500}") int batchSize,
+                             @Value("${app.menu-import.max-rows:20000}") int maxRows,
+                             @Value("${app.menu-import.max-errors:100}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.menuCatalog = menuCatalog;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+    }
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Format named by a request parameter, falling back to the content type or file name
+         */
+        public static Format detect(String format, String contentType, String fileName) {
+            if (format != null && !format.isBlank()) {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            }
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+            if (type.contains("json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * Import menu items into a shop and report which rows were rejected, and why the import stopped
+     * if it did not reach the end of the file
+     */
+    public ImportResult importMenuItems(Long shopId, InputStream input, Format format) {
+        List<String> shopNames = jdbcTemplate.queryForList("SELECT shop_name FROM shops WHERE id = ?", String.class, shopId);
+        if (shopNames.isEmpty()) {
+            throw new RuntimeException("Shop not found with id: " + shopId);
+        }
+        String shopName = shopNames.get(0);
+        // Names taken in the shop, grown with every accepted row so duplicates within the file are caught too
+        Set<String> names = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT item_name FROM menu_items WHERE shop_id = ?", String.class, shopId));
+
+        ImportResult result = new ImportResult(maxErrors);
+        List<Row> batch = new ArrayList<>(batchSize);
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Iterator<Row> rows = format == Format.CSV ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper);
+        int count = 0;
+        while (result.failure == null && hasNext(rows, result)) {
+            Row row = rows.next();
+            if (++count > maxRows) {
+                result.fail("Imports are limited to " + maxRows + " rows; stopped at line " + row.line);
+                break;
+            }
+            String error = row.error != null ? row.error : validate(shopId, row, names);
+            if (error != null) {
+                result.reject(row.line, row.request != null ? row.request.getItemName() : null, error);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                insert(shopId, shopName, batch, result);
+            }
+        }
+        // The rows read before a read failure or the row limit are still imported
+        if (!batch.isEmpty()) {
+            insert(shopId, shopName, batch, result);
+        }
+
+        if (result.failure != null) {
+            logger.warn("Stopped importing menu items into shop {} after {} items ({} rejected): {}", shopId,
+                    result.imported, result.rejected, result.failure);
+        } else {
+            logger.info("Imported {} menu items into shop {} ({} rejected) in {} ms", result.imported, shopId,
+                    result.rejected, (System.nanoTime() - start) / 1_000_000);
+        }
+        return result;
+    }
+
+    // False at the end of the input, or when it cannot be read any further (recorded as the failure)
+    private static boolean hasNext(Iterator<Row> rows, ImportResult result) {
+        try {
+            return rows.hasNext();
+        } catch (UncheckedIOException e) {
+            // The row readers wrap read failures so they can implement Iterator
+            result.fail("Failed to read the file: " + e.getCause().getMessage());
+            return false;
+        } catch (IllegalArgumentException e) {
+            result.fail(e.getMessage());
+            return false;
+        }
+    }
+
+    // Null when the row can be imported; reserves its name
+    private String validate(Long shopId, Row row, Set<String> names) {
+        MenuItemRequest request = row.request;
+        request.setShopId(shopId);
+        Set<ConstraintViolation<MenuItemRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            List<String> messages = new ArrayList<>();
+            for (ConstraintViolation<MenuItemRequest> violation : violations) {
+                messages.add(violation.getMessage());
+            }
+            Collections.sort(messages);
+            return String.join("; ", messages);
+        }
+        if (!names.add(request.getItemName())) {
+            return "Menu item with name '" + request.getItemName() + "' already exists in this shop";
+        }
+        return null;
+    }
+
+    // Commits the batch and empties it; a batch that fails is rolled back and stops the import
+    private void insert(Long shopId, String shopName, List<Row> batch, ImportResult result) {
+        try {
+            insert(shopId, shopName, batch);
+            result.imported += batch.size();
+        } catch (DataAccessException e) {
+            logger.error("Failed to insert menu items into shop {}", shopId, e);
+            result.fail("Failed to save the rows from line " + batch.get(0).line + " on: "
+                    + e.getMostSpecificCause().getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void insert(Long shopId, String shopName, List<Row> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> params = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            MenuItemRequest request = row.request;
+            params.add(new Object[] {shopId, request.getItemName(), request.getDescription(), request.getPrice(),
+                    request.getCategory().name(), request.getIsAvailable(), request.getIsVegetarian(),
+                    request.getIsVegan(), request.getPreparationTimeMinutes(), request.getImageUrl(),
+                    timestamp, timestamp});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // The generated ids come back with the batch, in row order, for the menu catalog
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_MENU_ITEM_SQL, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            new ArgumentPreparedStatementSetter(params.get(i)).setValues(ps);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return params.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> ids = keys.getKeyList();
+
+            List<MenuItemResponse> items = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                MenuItemRequest request = batch.get(i).request;
+                Long id = ((Number) ids.get(i).values().iterator().next()).longValue();
+                items.add(new MenuItemResponse(id, request.getItemName(),
+                        request.getDescription(), request.getPrice(), request.getCategory(), request.getIsAvailable(),
+                        request.getIsVegetarian(), request.getIsVegan(), request.getPreparationTimeMinutes(),
+                        request.getImageUrl(), now, now, shopId, shopName));
+            }
+            // One catalog copy per batch rather than per item; applied when the batch commits
+            menuCatalog.upsertAll(items);
+        });
+    }
+
+    // Builds the request of one row from its fields, keyed by normalized column name
+    private static Row toRow(int line, Map<String, String> fields) {
+        MenuItemRequest request = new MenuItemRequest();
+        try {
+            request.setItemName(trimToNull(fields.get("itemname")));
+            request.setDescription(trimToNull(fields.get("description")));
+            String price = trimToNull(fields.get("price"));
+            request.setPrice(price != null ? parseNumber(price, "price", BigDecimal::new) : null);
+            String category = trimToNull(fields.get("category"));
+            request.setCategory(category != null ? parseCategory(category) : null);
+            Boolean isAvailable = parseBoolean(fields.get("isavailable"));
+            request.setIsAvailable(isAvailable != null ? isAvailable : Boolean.TRUE);
+            Boolean isVegetarian = parseBoolean(fields.get("isvegetarian"));
+            request.setIsVegetarian(isVegetarian != null ? isVegetarian : Boolean.FALSE);
+            Boolean isVegan = parseBoolean(fields.get("isvegan"));
+            request.setIsVegan(isVegan != null ? isVegan : Boolean.FALSE);
+            String preparationTime = trimToNull(fields.get("preparationtimeminutes"));
+            request.setPreparationTimeMinutes(preparationTime != null
+                    ? parseNumber(preparationTime, "preparation time", Integer::valueOf) : null);
+            request.setImageUrl(trimToNull(fields.get("imageurl")));
+        } catch (IllegalArgumentException e) {
+            return new Row(line, request, e.getMessage());
+        }
+        return new Row(line, request, null);
+    }
+
+    private static <T> T parseNumber(String value, String field, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    // Accepts the enum name ("MAIN_COURSE") or the display name ("Main Course")
+    private static MenuCategory parseCategory(String value) {
+        for (MenuCategory category : MenuCategory.values()) {
+            if (category.name().equalsIgnoreCase(value.replace(' ', '_')) || category.getDisplayName().equalsIgnoreCase(value)) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("Unknown category: " + value);
+    }
+
+    private static Boolean parseBoolean(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        switch (text.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> {
+                return Boolean.TRUE;
+            }
+            case "false", "no", "n", "0" -> {
+                return Boolean.FALSE;
+            }
+            default -> throw new IllegalArgumentException("Invalid yes/no value: " + text);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").replace("-", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripBom(String line) {
+        return line != null && !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static class Row {
+        private final int line;
+        private final MenuItemRequest request;
+        private final String error;
+
+        Row(int line, MenuItemRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    /**
+     * RFC 4180 records: quoted fields may contain separators, doubled quotes and line breaks
+     */
+    private static class CsvRows implements Iterator<Row> {
+        private final BufferedReader reader;
+        private List<String> header;
+        private int lineNumber;
+        private Row next;
+
+        CsvRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+
+        private Row read() {
+            try {
+                if (header == null) {
+                    List<String> columns = readRecord();
+                    if (columns == null) {
+                        return null;
+                    }
+                    header = new ArrayList<>();
+                    for (String column : columns) {
+                        header.add(normalize(stripBom(column)));
+                    }
+                    if (!header.contains("itemname")) {
+                        throw new IllegalArgumentException("CSV header must name the columns, e.g. itemName,price,category");
+                    }
+                }
+                List<String> values;
+                int line;
+                do {
+                    line = lineNumber + 1;
+                    values = readRecord();
+                    if (values == null) {
+                        return null;
+                    }
+                } while (values.size() == 1 && values.get(0).isBlank());
+
+                if (values.size() > header.size()) {
+                    return new Row(line, null, "Expected " + header.size() + " columns but found " + values.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return toRow(line, fields);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Fields of the next record, or null at the end of the input
+        private List<String> readRecord() throws IOException {
+            String text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            lineNumber++;
+            List<String> fields = new ArrayList<>();
+            int firstLine = lineNumber;
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // A quoted field continues on the next line
+                    text = reader.readLine();
+                    if (text == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + firstLine);
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped
+     */
+    private static class NdjsonRows implements Iterator<Row> {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private int lineNumber;
+        private Row next;
+
+        NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+
+        private Row read() {
+            try {
+                String text;
+                do {
+                    text = reader.readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    lineNumber++;
+                } while (text.isBlank());
+
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(lineNumber == 1 ? stripBom(text) : text);
+                } catch (JsonProcessingException e) {
+                    return new Row(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return new Row(lineNumber, null, "Expected a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(entry -> {
+                    JsonNode value = entry.getValue();
+                    fields.put(normalize(entry.getKey()), value.isNull() ? null : value.asText());
+                });
+                return toRow(lineNumber, fields);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static class ImportResult {
+        private final int maxErrors;
+        private int imported;
+        private int rejected;
+        private final List<RowError> errors = new ArrayList<>();
+        private String failure;
+
+        ImportResult(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(int line, String itemName, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, itemName, message));
+            }
+        }
+
+        void fail(String message) {
+            failure = message;
+        }
+
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public List<RowError> getErrors() { return errors; }
+        public boolean isErrorsTruncated() { return rejected > errors.size(); }
+        // Why the import stopped before the end of the file; null when it read the whole file
+        public String getFailure() { return failure; }
+        public boolean isComplete() { return failure == null; }
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String itemName;
+        private final String message;
+
+        RowError(int line, String itemName, String message) {
+            this.line = line;
+            this.itemName = itemName;
+            this.message = message;
+        }
+
+        public int getLine() { return line; }
+        public String getItemName() { return itemName; }
+        public String getMessage() { return message; }
+    }
+}
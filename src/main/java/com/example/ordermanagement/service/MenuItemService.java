@@ -1,5 +1,6 @@
 package com.example.ordermanagement.service;
 
+import com.example.ordermanagement.dto.MenuFeedResponse;
 import com.example.ordermanagement.dto.MenuItemRequest;
 import com.example.ordermanagement.dto.MenuItemResponse;
 import com.example.ordermanagement.model.MenuItem;
@@ -7,25 +8,41 @@ import com.example.ordermanagement.model.MenuCategory;
 import com.example.ordermanagement.model.Shop;
 import com.example.ordermanagement.repository.MenuItemRepository;
 import com.example.ordermanagement.repository.ShopRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @Transactional
 public class MenuItemService {
     
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    
     private final MenuItemRepository menuItemRepository;
     private final ShopRepository shopRepository;
+    private final MenuCatalog menuCatalog;
     
     @Autowired
-    public MenuItemService(MenuItemRepository menuItemRepository, ShopRepository shopRepository) {
+    public MenuItemService(MenuItemRepository menuItemRepository, ShopRepository shopRepository,
+                           MenuCatalog menuCatalog) {
         this.menuItemRepository = menuItemRepository;
         this.shopRepository = shopRepository;
+        this.menuCatalog = menuCatalog;
     }
     
     public MenuItemResponse createMenuItem(MenuItemRequest request) {
@@ -52,7 +69,9 @@ public class MenuItemService {
         menuItem.setShop(shop);
         
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
-        return convertToResponse(savedMenuItem);
+        MenuItemResponse response = convertToResponse(savedMenuItem);
+        menuCatalog.upsert(response);
+        return response;
     }
     
     @Transactional(readOnly = true)
@@ -115,14 +134,18 @@ public class MenuItemService {
         existingMenuItem.setImageUrl(request.getImageUrl());
         existingMenuItem.setShop(shop);
         
-        MenuItem updatedMenuItem = menuItemRepository.save(existingMenuItem);
-        return convertToResponse(updatedMenuItem);
+        // Flushed so the response carries the new updatedAt, which orders catalog updates
+        MenuItem updatedMenuItem = menuItemRepository.saveAndFlush(existingMenuItem);
+        MenuItemResponse response = convertToResponse(updatedMenuItem);
+        menuCatalog.upsert(response);
+        return response;
     }
     
     public void deleteMenuItem(Long id) {
         MenuItem menuItem = menuItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
         menuItemRepository.delete(menuItem);
+        menuCatalog.remove(id);
     }
     
     @Transactional(readOnly = true)
@@ -196,8 +219,10 @@ public class MenuItemService {
                 .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
         
         menuItem.setIsAvailable(!menuItem.getIsAvailable());
-        MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
-        return convertToResponse(updatedMenuItem);
+        MenuItem updatedMenuItem = menuItemRepository.saveAndFlush(menuItem);
+        MenuItemResponse response = convertToResponse(updatedMenuItem);
+        menuCatalog.upsert(response);
+        return response;
     }
     
     @Transactional(readOnly = true)
@@ -236,6 +261,59 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get one page of the customer menu feed using keyset pagination on (createdAt, id).
+     * The cursor is the opaque nextCursor of the previous page, or null for the first page.
+     */
+    @Transactional(readOnly = true)
+    public MenuFeedResponse getMenuFeed(String cursor, int size, MenuCategory category,
+                                        Boolean isVegetarian, Boolean isVegan,
+                                        BigDecimal minPrice, BigDecimal maxPrice) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<MenuItem> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = menuItemRepository.findMenuFeedFirstPage(category, isVegetarian, isVegan,
+                                                            minPrice, maxPrice, limit);
+        } else {
+            String[] position = decodeFeedCursor(cursor);
+            rows = menuItemRepository.findMenuFeedPageAfter(LocalDateTime.parse(position[0]), Long.valueOf(position[1]),
+                                                            category, isVegetarian, isVegan,
+                                                            minPrice, maxPrice, limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<MenuItem> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeFeedCursor(page.get(page.size() - 1)) : null;
+        
+        List<MenuItemResponse> items = page.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new MenuFeedResponse(items, nextCursor, hasMore);
+    }
+    
+    private String encodeFeedCursor(MenuItem last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeFeedCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.valueOf(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid feed cursor: " + cursor);
+        }
+    }
+    
     // Helper method to convert MenuItem entity to MenuItemResponse DTO
     private MenuItemResponse convertToResponse(MenuItem menuItem) {
         return new MenuItemResponse(
@@ -269,4 +347,26 @@ public class MenuItemService {
     public List<MenuItem> getAllAvailableMenuItems() {
         return menuItemRepository.findByIsAvailableTrue();
     }
+    
+    /**
+     * Get available menu items from the in-memory catalog snapshot (no database access once loaded)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<MenuItemResponse> getAvailableCatalogItems() {
+        if (!menuCatalog.isLoaded()) {
+            loadMenuCatalog();
+        }
+        return menuCatalog.getSnapshot().getAvailableItems();
+    }
+    
+    /**
+     * Load the menu catalog snapshot once startup data initialization has finished
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadMenuCatalog() {
+        menuCatalog.load(() -> menuItemRepository.findAllWithShop().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,177 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.CartItemResponse;
+import com.example.ordermanagement.dto.CartResponse;
+import com.example.ordermanagement.model.CheckoutRequest;
+import com.example.ordermanagement.model.Order;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.CheckoutRequestRepository;
+import com.example.ordermanagement.repository.MenuItemRepository;
+import com.example.ordermanagement.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO order_lines (order_id, menu_item_id, shop_id, item_name, quantity, unit_price, subtotal, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CheckoutRequestRepository checkoutRequestRepository;
+    private final CartStore cartStore;
+    private final CheckoutIdempotency checkoutIdempotency;
+    private final KitchenScheduler kitchenScheduler;
+    private final CartService cartService;
+    private final UserEventHub userEventHub;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderService(OrderRepository orderRepository, MenuItemRepository menuItemRepository,
+                        CheckoutRequestRepository checkoutRequestRepository, CartStore cartStore,
+                        CheckoutIdempotency checkoutIdempotency, KitchenScheduler kitchenScheduler,
+                        CartService cartService, UserEventHub userEventHub, JdbcTemplate jdbcTemplate) {
+        this.orderRepository = orderRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.checkoutRequestRepository = checkoutRequestRepository;
+        this.cartStore = cartStore;
+        this.checkoutIdempotency = checkoutIdempotency;
+        this.kitchenScheduler = kitchenScheduler;
+        this.cartService = cartService;
+        this.userEventHub = userEventHub;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Place an order from the user's cart.
+     * The order, its lines and the emptied cart are written in one transaction; unit prices are
+     * the ones captured when the items were added to the cart. Once committed, the order is
+     * queued in the kitchens of the shops it ordered from and pushed to the customer's event streams.
+     */
+    public Order placeOrder(User user) {
+        return enqueue(cartStore.checkout(user, cart -> writeOrder(user, cart)));
+    }
+
+    /**
+     * Place an order at most once per idempotency key; a retry with the same key returns
+     * the order created by the first attempt. Without a key this is {@link #placeOrder(User)}.
+     */
+    public Order placeOrder(User user, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return placeOrder(user);
+        }
+        String key = idempotencyKey.trim();
+        return checkoutIdempotency.execute(user.getId(), key, () -> enqueue(cartStore.checkout(user, cart -> {
+            PlacedOrder placed = writeOrder(user, cart);
+            checkoutRequestRepository.save(new CheckoutRequest(user.getId(), key, placed.order.getId()));
+            return placed;
+        })));
+    }
+
+    private Order enqueue(PlacedOrder placed) {
+        Order order = placed.order;
+        User user = order.getUser();
+        kitchenScheduler.accept(order.getId(), placed.tickets);
+        userEventHub.publish(user.getId(), "order", Map.of("orderId", order.getId(), "status", order.getStatus().name()));
+        cartService.publishCart(user);
+        return order;
+    }
+
+    // Runs inside the checkout transaction
+    private PlacedOrder writeOrder(User user, CartResponse cart) {
+        List<CartItemResponse> items = cart.getCartItems();
+        Map<Long, Object[]> menuItems = resolveMenuItems(items);
+
+        Order order = orderRepository.save(new Order(user, cart.getTotalAmount(), cart.getTotalItems()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lines = new ArrayList<>(items.size());
+        Map<Long, KitchenScheduler.TicketRequest> tickets = new HashMap<>();
+        for (CartItemResponse item : items) {
+            Object[] menuItem = menuItems.get(item.getMenuItemId());
+            Long shopId = (Long) menuItem[1];
+            lines.add(new Object[] {order.getId(), item.getMenuItemId(), shopId,
+                    item.getItemName(), item.getQuantity(), item.getUnitPrice(), item.getSubtotal(), now});
+            tickets.computeIfAbsent(shopId, id -> new KitchenScheduler.TicketRequest(id, (Integer) menuItem[4]))
+                    .addLine((Integer) menuItem[3], item.getQuantity());
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines);
+
+        logger.info("Placed order {} for user {} with {} lines", order.getId(), user.getId(), lines.size());
+        return new PlacedOrder(order, tickets.values());
+    }
+
+    // One query for the whole cart; rejects items deleted or made unavailable since they were added
+    private Map<Long, Object[]> resolveMenuItems(List<CartItemResponse> items) {
+        List<Long> menuItemIds = items.stream().map(CartItemResponse::getMenuItemId).toList();
+        Map<Long, Object[]> menuItems = new HashMap<>();
+        for (Object[] row : menuItemRepository.findCheckoutInfoByIds(menuItemIds)) {
+            if (Boolean.TRUE.equals(row[2])) {
+                menuItems.put((Long) row[0], row);
+            }
+        }
+        for (CartItemResponse item : items) {
+            if (!menuItems.containsKey(item.getMenuItemId())) {
+                throw new RuntimeException("Menu item is no longer available: " + item.getItemName());
+            }
+        }
+        return menuItems;
+    }
+
+    /**
+     * Get a user's orders, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByUser(User user) {
+        return orderRepository.findByUserId(user.getId());
+    }
+
+    /**
+     * Get order with its lines
+     */
+    @Transactional(readOnly = true)
+    public Order getOrderWithLines(Long id) {
+        return orderRepository.findByIdWithLines(id)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+    }
+
+    /**
+     * Get a shop's kitchen queue with estimated ready times
+     */
+    public List<KitchenScheduler.TicketView> getKitchenQueue(Long shopId) {
+        return kitchenScheduler.getQueue(shopId);
+    }
+
+    /**
+     * Count a user's orders
+     */
+    @Transactional(readOnly = true)
+    public long countOrdersByUser(User user) {
+        return orderRepository.countByUserId(user.getId());
+    }
+
+    // A committed order plus what its shops' kitchens need to schedule it
+    private static class PlacedOrder {
+        private final Order order;
+        private final Collection<KitchenScheduler.TicketRequest> tickets;
+
+        PlacedOrder(Order order, Collection<KitchenScheduler.TicketRequest> tickets) {
+            this.order = order;
+            this.tickets = tickets;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.repository.PermissionRepository;
+import com.example.ordermanagement.repository.UserPermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, bitset-encoded permission model.
+ *
+ * Every active permission is assigned a dense ordinal (see {@link PermissionIndex}); the index is
+ * built at startup and rebuilt whenever permission definitions change. Each user's effective grants
+ * are compiled into a {@code long[]} with one bit per ordinal, so a check is an ordinal lookup and a
+ * single bit test. A compiled set is only valid until its earliest grant expiry, after which it is
+ * recompiled, so expiry times are still honored.
+ *
+ * Entries are invalidated by {@link PermissionService} whenever grants or permissions change;
+ * invalidation is repeated when the surrounding transaction completes so a set compiled from
+ * uncommitted or rolled-back state never survives. Sets are compiled outside the map, so the query
+ * never blocks checks of other users; a set whose compilation overlapped an invalidation is used for
+ * that check only and not cached.
+ */
+@Component
+public class PermissionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionCache.class);
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final UserPermissionRepository userPermissionRepository;
+    private final PermissionRepository permissionRepository;
+
+    private final ConcurrentHashMap<Long, UserPermissionBits> userPermissions = new ConcurrentHashMap<>();
+    private volatile PermissionIndex index;
+    // Bumped before every invalidation, so a compilation can tell it raced one
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PermissionCache(UserPermissionRepository userPermissionRepository,
+                           PermissionRepository permissionRepository) {
+        this.userPermissionRepository = userPermissionRepository;
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * Assign permission ordinals once startup data initialization has finished
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        getIndex();
+    }
+
+    /**
+     * Check whether the user holds an effective grant for resource/action
+     */
+    public boolean hasPermission(Long userId, String resource, String action) {
+        PermissionIndex currentIndex = getIndex();
+        return hasPermission(userId, currentIndex, currentIndex.ordinalOf(resource, action));
+    }
+
+    /**
+     * Check a permission by its name, e.g. "SHOP_CREATE"
+     */
+    public boolean hasPermissionByName(Long userId, String permissionName) {
+        PermissionIndex currentIndex = getIndex();
+        return hasPermission(userId, currentIndex, currentIndex.ordinalOf(permissionName));
+    }
+
+    private boolean hasPermission(Long userId, PermissionIndex currentIndex, int ordinal) {
+        if (ordinal < 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        UserPermissionBits bits = userPermissions.get(userId);
+        if (bits == null || !bits.isValid(currentIndex, now)) {
+            bits = compileAndCache(userId, currentIndex);
+        }
+        return bits.test(ordinal);
+    }
+
+    private UserPermissionBits compileAndCache(Long userId, PermissionIndex currentIndex) {
+        long seen = invalidations.get();
+        UserPermissionBits compiled = compile(userId, currentIndex);
+        userPermissions.put(userId, compiled);
+        // An invalidation that removed the entry before the put bumped the counter before removing
+        if (invalidations.get() != seen) {
+            userPermissions.remove(userId, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Drop the compiled set of a single user (after grant/revoke)
+     */
+    public void invalidateUser(Long userId) {
+        remove(userId);
+        afterCompletion(() -> remove(userId));
+    }
+
+    private void remove(Long userId) {
+        invalidations.incrementAndGet();
+        userPermissions.remove(userId);
+    }
+
+    /**
+     * Drop every compiled set and reassign ordinals (after permission definitions change)
+     */
+    public void invalidateAll() {
+        clear();
+        afterCompletion(this::clear);
+    }
+
+    private void clear() {
+        invalidations.incrementAndGet();
+        index = null;
+        userPermissions.clear();
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private PermissionIndex getIndex() {
+        PermissionIndex currentIndex = index;
+        if (currentIndex == null) {
+            synchronized (this) {
+                currentIndex = index;
+                if (currentIndex == null) {
+                    currentIndex = PermissionIndex.build(permissionRepository.findActivePermissionKeys());
+                    index = currentIndex;
+                    logger.info("Assigned ordinals to {} active permissions", currentIndex.size());
+                }
+            }
+        }
+        return currentIndex;
+    }
+
+    private UserPermissionBits compile(Long userId, PermissionIndex currentIndex) {
+        long[] bits = new long[(currentIndex.size() + 63) >>> 6];
+        long validUntil = NO_EXPIRY;
+        for (Object[] row : userPermissionRepository.findEffectiveGrantsByUserId(userId, LocalDateTime.now())) {
+            int ordinal = currentIndex.ordinalOfId((Long) row[0]);
+            if (ordinal < 0) {
+                continue;
+            }
+            bits[ordinal >>> 6] |= 1L << ordinal;
+            if (row[1] != null) {
+                validUntil = Math.min(validUntil, toEpochMillis((LocalDateTime) row[1]));
+            }
+        }
+        logger.debug("Compiled permission bitset for user {}", userId);
+        return new UserPermissionBits(currentIndex, bits, validUntil);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Immutable assignment of dense ordinals to active permissions
+     */
+    static class PermissionIndex {
+
+        private final Map<Long, Integer> ordinalsById;
+        private final Map<String, Integer> ordinalsByName;
+        private final Map<String, Map<String, Integer>> ordinalsByResourceAndAction;
+
+        private PermissionIndex(Map<Long, Integer> ordinalsById, Map<String, Integer> ordinalsByName,
+                                Map<String, Map<String, Integer>> ordinalsByResourceAndAction) {
+            this.ordinalsById = ordinalsById;
+            this.ordinalsByName = ordinalsByName;
+            this.ordinalsByResourceAndAction = ordinalsByResourceAndAction;
+        }
+
+        // Rows are [id, name, resource, action], ordered by id
+        static PermissionIndex build(Iterable<Object[]> rows) {
+            Map<Long, Integer> byId = new HashMap<>();
+            Map<String, Integer> byName = new HashMap<>();
+            Map<String, Map<String, Integer>> byResourceAndAction = new HashMap<>();
+            int ordinal = 0;
+            for (Object[] row : rows) {
+                byId.put((Long) row[0], ordinal);
+                byName.put((String) row[1], ordinal);
+                byResourceAndAction.computeIfAbsent((String) row[2], key -> new HashMap<>())
+                        .put((String) row[3], ordinal);
+                ordinal++;
+            }
+            return new PermissionIndex(byId, byName, byResourceAndAction);
+        }
+
+        int size() {
+            return ordinalsById.size();
+        }
+
+        int ordinalOfId(Long permissionId) {
+            Integer ordinal = ordinalsById.get(permissionId);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        int ordinalOf(String permissionName) {
+            Integer ordinal = ordinalsByName.get(permissionName);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        int ordinalOf(String resource, String action) {
+            Map<String, Integer> actions = ordinalsByResourceAndAction.get(resource);
+            if (actions == null) {
+                return -1;
+            }
+            Integer ordinal = actions.get(action);
+            return ordinal != null ? ordinal : -1;
+        }
+    }
+
+    /**
+     * One user's effective permissions as a bitset over {@link PermissionIndex} ordinals
+     */
+    static class UserPermissionBits {
+
+        private final PermissionIndex index;
+        private final long[] bits;
+        private final long validUntil;
+
+        UserPermissionBits(PermissionIndex index, long[] bits, long validUntil) {
+            this.index = index;
+            this.bits = bits;
+            this.validUntil = validUntil;
+        }
+
+        boolean isValid(PermissionIndex currentIndex, long nowMillis) {
+            return index == currentIndex && nowMillis < validUntil;
+        }
+
+        boolean test(int ordinal) {
+            return (bits[ordinal >>> 6] & (1L << ordinal)) != 0;
+        }
+    }
+}
@@ -6,10 +6,12 @@ import com.example.ordermanagement.model.UserPermission;
 import com.example.ordermanagement.repository.PermissionRepository;
 import com.example.ordermanagement.repository.UserPermissionRepository;
 import com.example.ordermanagement.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -19,6 +21,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @Transactional
 public class PermissionService {
 
@@ -33,6 +36,9 @@ public class PermissionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PermissionCache permissionCache;
+
     // Permission CRUD operations
     public Permission createPermission(String name, String description, String resource, String action) {
         if (permissionRepository.existsByName(name)) {
@@ -45,6 +51,7 @@ public class PermissionService {
 
         Permission permission = new Permission(name, description, resource, action);
         Permission savedPermission = permissionRepository.save(permission);
+        permissionCache.invalidateAll();
         logger.info("Created new permission: {}", savedPermission);
         return savedPermission;
     }
@@ -84,6 +91,7 @@ public class PermissionService {
         permission.setAction(action);
 
         Permission updatedPermission = permissionRepository.save(permission);
+        permissionCache.invalidateAll();
         logger.info("Updated permission: {}", updatedPermission);
         return updatedPermission;
     }
@@ -94,6 +102,7 @@ public class PermissionService {
 
         permission.setIsActive(false);
         permissionRepository.save(permission);
+        permissionCache.invalidateAll();
         logger.info("Deactivated permission: {}", permission.getName());
     }
 
@@ -121,6 +130,7 @@ public class PermissionService {
 
         UserPermission userPermission = new UserPermission(user, permission, grantedBy, expiresAt);
         UserPermission savedUserPermission = userPermissionRepository.save(userPermission);
+        permissionCache.invalidateUser(userId);
         
         logger.info("Granted permission '{}' to user '{}' by user ID {}", 
                 permission.getName(), user.getUsername(), grantedBy);
@@ -140,31 +150,26 @@ public class PermissionService {
 
         userPermission.revoke(revokedBy, reason);
         userPermissionRepository.save(userPermission);
+        permissionCache.invalidateUser(userId);
 
         logger.info("Revoked permission '{}' from user '{}' by user ID {}. Reason: {}", 
                 permission.getName(), user.getUsername(), revokedBy, reason);
     }
 
-    // Permission Checking
+    // Permission Checking (served from the compiled per-user cache, no transaction on a hit)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermission(Long userId, String resource, String action) {
-        LocalDateTime now = LocalDateTime.now();
-        Optional<UserPermission> userPermission = userPermissionRepository
-                .findEffectiveUserPermissionByResourceAndAction(userId, resource, action, now);
-        
-        return userPermission.isPresent();
+        return permissionCache.hasPermission(userId, resource, action);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermission(User user, String resource, String action) {
         return hasPermission(user.getId(), resource, action);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermissionByName(Long userId, String permissionName) {
-        Optional<Permission> permission = permissionRepository.findByName(permissionName);
-        if (permission.isEmpty()) {
-            return false;
-        }
-
-        return hasPermission(userId, permission.get().getResource(), permission.get().getAction());
+        return permissionCache.hasPermissionByName(userId, permissionName);
     }
 
     public Set<String> getUserPermissions(Long userId) {
@@ -218,6 +223,7 @@ public class PermissionService {
         }
         
         if (!expiredPermissions.isEmpty()) {
+            permissionCache.invalidateAll();
             logger.info("Cleaned up {} expired permissions", expiredPermissions.size());
         }
     }
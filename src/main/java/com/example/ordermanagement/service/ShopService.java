@@ -9,6 +9,7 @@ import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.model.Role;
 import com.example.ordermanagement.repository.ShopRepository;
 import com.example.ordermanagement.repository.MenuItemRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,10 +19,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @Transactional
 public class ShopService implements ShopServiceInterface {
     
@@ -30,12 +37,17 @@ public class ShopService implements ShopServiceInterface {
     private final ShopRepository shopRepository;
     private final MenuItemRepository menuItemRepository;
     private final UserService userService;
+    private final MenuCatalog menuCatalog;
+    private final KitchenScheduler kitchenScheduler;
     
     @Autowired
-    public ShopService(ShopRepository shopRepository, MenuItemRepository menuItemRepository, UserService userService) {
+    public ShopService(ShopRepository shopRepository, MenuItemRepository menuItemRepository, UserService userService,
+                       MenuCatalog menuCatalog, KitchenScheduler kitchenScheduler) {
         this.shopRepository = shopRepository;
         this.menuItemRepository = menuItemRepository;
         this.userService = userService;
+        this.menuCatalog = menuCatalog;
+        this.kitchenScheduler = kitchenScheduler;
     }
     
     @Override
@@ -85,6 +97,7 @@ public class ShopService implements ShopServiceInterface {
         shop.setDescription(request.getDescription());
         shop.setImageUrl(request.getImageUrl());
         shop.setShopType(request.getShopType());
+        shop.setKitchenCapacity(request.getKitchenCapacity() != null ? request.getKitchenCapacity() : 1);
         shop.setStatus(ShopStatus.PENDING); // New shops start as pending
         shop.setRegistrationDate(LocalDateTime.now());
         shop.setOwnerUser(shopOwner); // Link shop with owner user
@@ -111,9 +124,7 @@ public class ShopService implements ShopServiceInterface {
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getAllShops() {
-        return shopRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findAll());
     }
     
     @Override
@@ -146,8 +157,13 @@ public class ShopService implements ShopServiceInterface {
         existingShop.setDescription(request.getDescription());
         existingShop.setImageUrl(request.getImageUrl());
         existingShop.setShopType(request.getShopType());
+        if (request.getKitchenCapacity() != null) {
+            existingShop.setKitchenCapacity(request.getKitchenCapacity());
+        }
         
         Shop updatedShop = shopRepository.save(existingShop);
+        menuCatalog.renameShop(updatedShop.getId(), updatedShop.getShopName());
+        kitchenScheduler.updateCapacity(updatedShop.getId(), updatedShop.getKitchenCapacity());
         return convertToResponse(updatedShop);
     }
     
@@ -161,70 +177,55 @@ public class ShopService implements ShopServiceInterface {
         
         // Then delete the shop
         shopRepository.delete(shop);
+        menuCatalog.removeShop(id);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> searchShopsByName(String shopName) {
-        return shopRepository.findByShopNameContainingIgnoreCase(shopName).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByShopNameContainingIgnoreCase(shopName));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByOwnerName(String ownerName) {
-        return shopRepository.findByOwnerNameContainingIgnoreCase(ownerName).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByOwnerNameContainingIgnoreCase(ownerName));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByStatus(ShopStatus status) {
-        return shopRepository.findByStatus(status).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByStatus(status));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByType(ShopType shopType) {
-        return shopRepository.findByShopType(shopType).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByShopType(shopType));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByCity(String city) {
-        return shopRepository.findByCity(city).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByCity(city));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByState(String state) {
-        return shopRepository.findByState(state).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByState(state));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByCountry(String country) {
-        return shopRepository.findByCountry(country).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByCountry(country));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsByLocation(String city, String state) {
-        return shopRepository.findByLocation(city, state).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findByLocation(city, state));
     }
     
     @Override
@@ -264,26 +265,20 @@ public class ShopService implements ShopServiceInterface {
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getPendingShops() {
-        return shopRepository.findPendingShops().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findPendingShops());
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getActiveShops() {
-        return shopRepository.findActiveShops().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findActiveShops());
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> searchShops(String shopName, String ownerName, String city, 
                                         ShopStatus status, ShopType shopType) {
-        return shopRepository.searchShops(shopName, ownerName, city, status, shopType).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.searchShops(shopName, ownerName, city, status, shopType));
     }
     
     @Override
@@ -308,26 +303,22 @@ public class ShopService implements ShopServiceInterface {
     @Transactional(readOnly = true)
     public List<ShopResponse> getRecentShops(int limit) {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        return shopRepository.findShopsRegisteredAfter(thirtyDaysAgo).stream()
+        List<Shop> recentShops = shopRepository.findShopsRegisteredAfter(thirtyDaysAgo).stream()
                 .limit(limit)
-                .map(this::convertToResponse)
                 .collect(Collectors.toList());
+        return convertToResponses(recentShops);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsWithMenuItems() {
-        return shopRepository.findShopsWithMenuItems().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findShopsWithMenuItems());
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShopResponse> getShopsWithoutMenuItems() {
-        return shopRepository.findShopsWithoutMenuItems().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(shopRepository.findShopsWithoutMenuItems());
     }
     
     @Override
@@ -368,8 +359,30 @@ public class ShopService implements ShopServiceInterface {
         return shopRepository.existsByOwnerUserId(userId);
     }
     
-    // Helper method to convert Shop entity to ShopResponse DTO
-    private ShopResponse convertToResponse(Shop shop) {
+    // Helper method to convert a single Shop entity to ShopResponse DTO (package-private for the benchmarks)
+    ShopResponse convertToResponse(Shop shop) {
+        ShopResponse response = buildResponse(shop);
+        applyMenuItemCounts(List.of(response));
+        return response;
+    }
+    
+    // Helper method to convert a list of shops, resolving menu counts in one query
+    List<ShopResponse> convertToResponses(List<Shop> shops) {
+        List<ShopResponse> responses = shops.stream()
+                .map(this::buildResponse)
+                .collect(Collectors.toList());
+        applyMenuItemCounts(responses);
+        return responses;
+    }
+    
+    // Helper method to convert a page of shops, resolving menu counts in one query
+    private Page<ShopResponse> convertToResponsePage(Page<Shop> shops) {
+        Page<ShopResponse> responses = shops.map(this::buildResponse);
+        applyMenuItemCounts(responses.getContent());
+        return responses;
+    }
+    
+    private ShopResponse buildResponse(Shop shop) {
         ShopResponse response = new ShopResponse(
                 shop.getId(),
                 shop.getShopName(),
@@ -389,12 +402,36 @@ public class ShopService implements ShopServiceInterface {
                 shop.getUpdatedAt()
         );
         response.setImageUrl(shop.getImageUrl());
+        response.setKitchenCapacity(shop.getKitchenCapacity());
+        return response;
+    }
+    
+    /**
+     * Enrichment stage: collects the shop IDs of a batch and sets total and
+     * available menu item counts from a single grouped query, instead of one
+     * COUNT query per shop.
+     */
+    private void applyMenuItemCounts(List<ShopResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
         
-        // Set menu items count
-        long menuItemsCount = menuItemRepository.countByShopId(shop.getId());
-        response.setMenuItemsCount((int) menuItemsCount);
+        Set<Long> shopIds = responses.stream()
+                .map(ShopResponse::getId)
+                .collect(Collectors.toSet());
         
-        return response;
+        Map<Long, Object[]> countsByShopId = new HashMap<>();
+        for (Object[] row : menuItemRepository.countMenuItemsByShopIds(shopIds)) {
+            countsByShopId.put((Long) row[0], row);
+        }
+        
+        for (ShopResponse response : responses) {
+            Object[] counts = countsByShopId.get(response.getId());
+            if (counts != null) {
+                response.setMenuItemsCount(((Number) counts[1]).intValue());
+                response.setAvailableMenuItemsCount(((Number) counts[2]).intValue());
+            }
+        }
     }
     
     // Additional methods required by interface
@@ -410,17 +447,7 @@ public class ShopService implements ShopServiceInterface {
             logger.debug("Shop from DB: {} (ID: {})", shop.getShopName(), shop.getId());
         }
         
-        Page<ShopResponse> result = shopPage.map(shop -> {
-            try {
-                ShopResponse response = convertToResponse(shop);
-                logger.debug("Converted: {}", response.getShopName());
-                return response;
-            } catch (Exception e) {
-                logger.error("Error converting shop {}: {}", shop.getShopName(), e.getMessage());
-                e.printStackTrace();
-                return null;
-            }
-        });
+        Page<ShopResponse> result = convertToResponsePage(shopPage);
         
         logger.info("Final result: {} total, {} in page", result.getTotalElements(), result.getContent().size());
         return result;
@@ -429,30 +456,26 @@ public class ShopService implements ShopServiceInterface {
     @Override
     @Transactional(readOnly = true)
     public Page<ShopResponse> getShopsByStatus(ShopStatus status, Pageable pageable) {
-        return shopRepository.findByStatus(status, pageable)
-                .map(this::convertToResponse);
+        return convertToResponsePage(shopRepository.findByStatus(status, pageable));
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<ShopResponse> getShopsByType(ShopType shopType, Pageable pageable) {
-        return shopRepository.findByShopType(shopType, pageable)
-                .map(this::convertToResponse);
+        return convertToResponsePage(shopRepository.findByShopType(shopType, pageable));
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<ShopResponse> getShopsByCity(String city, Pageable pageable) {
-        return shopRepository.findByCity(city, pageable)
-                .map(this::convertToResponse);
+        return convertToResponsePage(shopRepository.findByCity(city, pageable));
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<ShopResponse> searchShops(String query, Pageable pageable) {
-        return shopRepository.findByShopNameContainingIgnoreCaseOrOwnerNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                query, query, query, pageable)
-                .map(this::convertToResponse);
+        return convertToResponsePage(shopRepository.findByShopNameContainingIgnoreCaseOrOwnerNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                query, query, query, pageable));
     }
     
     @Override
@@ -483,8 +506,35 @@ public class ShopService implements ShopServiceInterface {
         return shopRepository.countByShopType(shopType);
     }
     
+    /**
+     * Total, per-status and per-type shop counts from one grouped query
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ShopStats getShopStats() {
+        Map<ShopStatus, Long> shopsByStatus = new EnumMap<>(ShopStatus.class);
+        for (ShopStatus status : ShopStatus.values()) {
+            shopsByStatus.put(status, 0L);
+        }
+        Map<ShopType, Long> shopsByType = new EnumMap<>(ShopType.class);
+        for (ShopType type : ShopType.values()) {
+            shopsByType.put(type, 0L);
+        }
+        long totalShops = 0;
+        for (ShopRepository.ShopCounts counts : shopRepository.countShopsByStatusAndType()) {
+            totalShops += counts.getShops();
+            if (counts.getStatus() != null) {
+                shopsByStatus.merge(counts.getStatus(), counts.getShops(), Long::sum);
+            }
+            if (counts.getShopType() != null) {
+                shopsByType.merge(counts.getShopType(), counts.getShops(), Long::sum);
+            }
+        }
+        return new ShopStats(totalShops, shopsByStatus, shopsByType);
+    }
+    
     // Helper methods for unique shop owner account creation
-    private String generateShopOwnerUsername(String shopName, String ownerName) {
+    String generateShopOwnerUsername(String shopName, String ownerName) {
         // Clean and format shop name and owner name
         String cleanShopName = shopName.replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
         String cleanOwnerName = ownerName.replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
@@ -533,4 +583,23 @@ public class ShopService implements ShopServiceInterface {
         
         return "Owner";
     }
+
+    /**
+     * Inner class for shop statistics
+     */
+    public static class ShopStats {
+        private final long totalShops;
+        private final Map<ShopStatus, Long> shopsByStatus;
+        private final Map<ShopType, Long> shopsByType;
+
+        public ShopStats(long totalShops, Map<ShopStatus, Long> shopsByStatus, Map<ShopType, Long> shopsByType) {
+            this.totalShops = totalShops;
+            this.shopsByStatus = Collections.unmodifiableMap(shopsByStatus);
+            this.shopsByType = Collections.unmodifiableMap(shopsByType);
+        }
+
+        public long getTotalShops() { return totalShops; }
+        public Map<ShopStatus, Long> getShopsByStatus() { return shopsByStatus; }
+        public Map<ShopType, Long> getShopsByType() { return shopsByType; }
+    }
 }
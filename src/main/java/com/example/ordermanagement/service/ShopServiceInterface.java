@@ -79,6 +79,8 @@ public interface ShopServiceInterface {
     
     long getShopCountByType(ShopType shopType);
     
+    ShopService.ShopStats getShopStats();
+    
     List<ShopResponse> getRecentShops(int limit);
     
     List<ShopResponse> getShopsWithMenuItems();
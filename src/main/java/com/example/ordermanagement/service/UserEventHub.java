@@ -0,0 +1,99 @@
+package com.example.ordermanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events channels per logged-in user.
+ *
+ * Cart and order changes are pushed to every open connection of the user as they happen, so an idle
+ * dashboard costs no requests and no database queries. Connections are held by servlet async
+ * processing rather than a thread each, and are kept alive through proxies with a periodic comment.
+ * Channels are node-local, like the carts whose changes they carry.
+ */
+@Component
+public class UserEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventHub.class);
+
+    private final ConcurrentHashMap<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public UserEventHub(@Value("${app.events.timeout-ms:1800000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Open a new event stream for the user; the browser reconnects on its own once it times out
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitters.compute(userId, (id, userEmitters) -> {
+            Set<SseEmitter> updated = userEmitters != null ? userEmitters : ConcurrentHashMap.newKeySet();
+            updated.add(emitter);
+            return updated;
+        });
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    /**
+     * Send a named event to every open stream of the user (no-op when none are open)
+     */
+    public void publish(Long userId, String eventName, Object data) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, SseEmitter.event().name(eventName).data(data));
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect closed ones
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, SseEmitter.event().comment("keepalive"));
+            }
+        });
+    }
+
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the async request
+            logger.debug("Dropping event stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
@@ -3,6 +3,8 @@ package com.example.ordermanagement.service;
 import com.example.ordermanagement.model.Role;
 import com.example.ordermanagement.model.User;
 import com.example.ordermanagement.repository.UserRepository;
+import com.example.ordermanagement.security.JwtRevocationRegistry;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,15 +17,19 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @Transactional
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtRevocationRegistry jwtRevocationRegistry;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       JwtRevocationRegistry jwtRevocationRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jwtRevocationRegistry = jwtRevocationRegistry;
     }
 
     @Override
@@ -88,6 +94,7 @@ public class UserService implements UserDetailsService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        jwtRevocationRegistry.revokeTokensIssuedBefore(user, System.currentTimeMillis());
         userRepository.save(user);
     }
 
@@ -97,6 +104,8 @@ public class UserService implements UserDetailsService {
     public User updateUserRole(Long userId, Role newRole) {
         User user = getUserById(userId);
         user.setRole(newRole);
+        // Tokens carry the role claim, so tokens issued for the old role must stop working
+        jwtRevocationRegistry.revokeTokensIssuedBefore(user, System.currentTimeMillis());
         return userRepository.save(user);
     }
 
@@ -106,6 +115,7 @@ public class UserService implements UserDetailsService {
     public User toggleUserStatus(Long userId) {
         User user = getUserById(userId);
         user.setIsActive(!user.getIsActive());
+        jwtRevocationRegistry.setUserActive(userId, user.getIsActive());
         return userRepository.save(user);
     }
 
@@ -199,6 +209,7 @@ public class UserService implements UserDetailsService {
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
         userRepository.delete(user);
+        jwtRevocationRegistry.revokeDeletedUser(userId);
     }
 
     /**
@@ -208,19 +219,23 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
         userRepository.delete(user);
+        jwtRevocationRegistry.revokeDeletedUser(user.getId());
     }
 
     /**
-     * Get user statistics
+     * Get user statistics (one aggregate query over the users table)
      */
     public UserStats getUserStats() {
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByIsActiveTrue();
-        long adminUsers = userRepository.countByRole(Role.ADMIN);
-        long shopUsers = userRepository.countByRole(Role.SHOP);
-        long customerUsers = userRepository.countByRole(Role.CUSTOMER);
+        UserRepository.UserCounts counts = userRepository.countUsers();
+        return new UserStats(counts.getTotalUsers(), counts.getActiveUsers(), counts.getAdminUsers(),
+                counts.getShopUsers(), counts.getCustomerUsers());
+    }
 
-        return new UserStats(totalUsers, activeUsers, adminUsers, shopUsers, customerUsers);
+    /**
+     * Most recently registered users, newest first
+     */
+    public List<User> getRecentUsers() {
+        return userRepository.findTop5ByOrderByCreatedAtDesc();
     }
 
     /**
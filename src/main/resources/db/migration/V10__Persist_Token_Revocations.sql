@@ -0,0 +1,11 @@
+-- Tokens issued before this time are rejected (role and password changes)
+ALTER TABLE users ADD COLUMN tokens_valid_after TIMESTAMP NULL;
+CREATE INDEX idx_users_tokens_valid_after ON users (tokens_valid_after);
+
+-- Deleted users, kept for one token lifetime so their tokens are rejected on every node
+CREATE TABLE deleted_users (
+    user_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL,
+    
+    INDEX idx_deleted_users_deleted (deleted_at)
+);
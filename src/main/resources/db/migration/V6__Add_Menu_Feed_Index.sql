@@ -0,0 +1,3 @@
+-- Composite index backing the customer menu feed keyset pagination
+-- (WHERE is_available = true ORDER BY created_at DESC, id DESC)
+CREATE INDEX idx_menu_items_feed ON menu_items(is_available, created_at, id);
@@ -0,0 +1,12 @@
+-- Idempotency keys of checkout requests; the unique key makes racing retries collide
+CREATE TABLE checkout_requests (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    order_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_checkout_requests_user_key (user_id, idempotency_key),
+    INDEX idx_checkout_requests_created (created_at)
+);
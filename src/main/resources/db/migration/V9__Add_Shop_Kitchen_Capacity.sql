@@ -0,0 +1,2 @@
+-- Number of orders a shop's kitchen prepares in parallel (used for order ETA scheduling)
+ALTER TABLE shops ADD COLUMN kitchen_capacity INT NOT NULL DEFAULT 1;
@@ -0,0 +1,201 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.config.FileUploadConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadControllerTest {
+
+    private static final byte[] ORIGINAL = "original image bytes".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = sha256(ORIGINAL);
+    private static final String BLOB = "blobs/" + HASH.substring(0, 2) + "/" + HASH.substring(2, 4) + "/" + HASH + ".jpg";
+
+    @TempDir
+    Path uploadDir;
+
+    private UploadController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileUploadConfig config = new FileUploadConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        controller = new UploadController(config);
+
+        Files.createDirectories(uploadDir.resolve(BLOB).getParent());
+        Files.write(uploadDir.resolve(BLOB), ORIGINAL);
+    }
+
+    @Test
+    void variantOfABlobIsTaggedByItsOwnContent() throws Exception {
+        MockHttpServletResponse original = get("/uploads/" + BLOB, null);
+        MockHttpServletResponse fallback = get("/uploads/" + BLOB + ".thumb.jpg", null);
+
+        // Until the thumbnail exists the original is served, and must be revalidated
+        assertThat(fallback.getStatus()).isEqualTo(200);
+        assertThat(fallback.getHeader("Cache-Control")).isEqualTo("public, no-cache");
+        assertThat(fallback.getHeader("ETag")).isEqualTo(original.getHeader("ETag"));
+
+        // Once the thumbnail exists, revalidating with the fallback's tag must fetch it, not get 304
+        Files.writeString(uploadDir.resolve(BLOB + ".thumb.jpg"), "thumbnail bytes", StandardCharsets.UTF_8);
+        MockHttpServletResponse revalidated = get("/uploads/" + BLOB + ".thumb.jpg", fallback.getHeader("ETag"));
+        assertThat(revalidated.getStatus()).isEqualTo(200);
+        assertThat(revalidated.getContentAsString()).isEqualTo("thumbnail bytes");
+        assertThat(revalidated.getHeader("ETag")).isNotEqualTo(original.getHeader("ETag"));
+    }
+
+    @Test
+    void blobIsTaggedByItsNameAndCachedForAYear() throws Exception {
+        MockHttpServletResponse response = get("/uploads/" + BLOB, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(ORIGINAL);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + HASH.substring(0, 32) + "\"");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+    }
+
+    @Test
+    void otherFilesAreTaggedByAHashOfTheirContent() throws Exception {
+        Files.write(uploadDir.resolve("logo.png"), ORIGINAL);
+        MockHttpServletResponse first = get("/uploads/logo.png", null);
+        assertThat(first.getHeader("ETag")).isEqualTo("\"" + HASH.substring(0, 32) + "\"");
+
+        Files.writeString(uploadDir.resolve("logo.png"), "replaced content", StandardCharsets.UTF_8);
+        MockHttpServletResponse second = get("/uploads/logo.png", first.getHeader("ETag"));
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getHeader("ETag")).isEqualTo("\"" + sha256("replaced content".getBytes(StandardCharsets.UTF_8))
+                .substring(0, 32) + "\"");
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        String etag = get("/uploads/" + BLOB, null).getHeader("ETag");
+
+        for (String ifNoneMatch : new String[] {etag, "W/" + etag, "\"other\", " + etag, "*"}) {
+            MockHttpServletResponse response = get("/uploads/" + BLOB, ifNoneMatch);
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            assertThat(response.getHeader("ETag")).isEqualTo(etag);
+        }
+
+        assertThat(get("/uploads/" + BLOB, "\"other\"").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rangeIsServedAsPartialContent() throws Exception {
+        assertPartial("bytes=0-7", "original", "bytes 0-7/20");
+        assertPartial("bytes=9-", "image bytes", "bytes 9-19/20");
+        assertPartial("bytes=-5", "bytes", "bytes 15-19/20");
+        assertPartial("bytes=15-100", "bytes", "bytes 15-19/20");
+    }
+
+    @Test
+    void rangeOutsideTheFileIsNotSatisfiable() throws Exception {
+        for (String range : new String[] {"bytes=20-", "bytes=8-3", "bytes=-0"}) {
+            MockHttpServletResponse response = serve(request("/uploads/" + BLOB, "Range", range));
+            assertThat(response.getStatus()).as(range).isEqualTo(416);
+            assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+        }
+    }
+
+    @Test
+    void unsupportedOrStaleRangeIsAnsweredWithTheWholeFile() throws Exception {
+        for (String range : new String[] {"bytes=0-1,4-5", "items=0-1", "bytes=a-b"}) {
+            MockHttpServletResponse response = serve(request("/uploads/" + BLOB, "Range", range));
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).isEqualTo(ORIGINAL);
+        }
+
+        MockHttpServletRequest stale = request("/uploads/" + BLOB, "Range", "bytes=0-7");
+        stale.addHeader("If-Range", "\"previous version\"");
+        MockHttpServletResponse response = serve(stale);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(ORIGINAL);
+    }
+
+    @Test
+    void headHasNoBody() throws Exception {
+        MockHttpServletRequest request = request("/uploads/" + BLOB, "Range", "bytes=0-7");
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(8);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void tomcatSendfileIsHandedTheRange() throws Exception {
+        MockHttpServletRequest request = request("/uploads/" + BLOB, "Range", "bytes=9-");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(uploadDir.resolve(BLOB).toAbsolutePath().normalize().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(9L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+    }
+
+    @Test
+    void pathsOutsideTheUploadDirectoryAreNotFound() throws Exception {
+        Path secret = Files.createTempFile(uploadDir.getParent(), "secret", ".txt");
+        try {
+            assertThat(get("/uploads/../" + secret.getFileName(), null).getStatus()).isEqualTo(404);
+            assertThat(get("/uploads/%2E%2E/" + secret.getFileName(), null).getStatus()).isEqualTo(404);
+        } finally {
+            Files.delete(secret);
+        }
+        assertThat(get("/uploads/missing.jpg", null).getStatus()).isEqualTo(404);
+        assertThat(get("/uploads/", null).getStatus()).isEqualTo(404);
+    }
+
+    private void assertPartial(String range, String body, String contentRange) throws Exception {
+        MockHttpServletResponse response = serve(request("/uploads/" + BLOB, "Range", range));
+        assertThat(response.getStatus()).as(range).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo(contentRange);
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length());
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+        return serve(request(uri, "If-None-Match", ifNoneMatch));
+    }
+
+    private static MockHttpServletRequest request(String uri, String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (value != null) {
+            request.addHeader(header, value);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ordermanagement.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tests disable metric exporters unless asked, which would remove the Prometheus endpoint
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+@ActiveProfiles("test")
+class ActuatorPortTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheusScrapeIsOnlyServedOnTheManagementPort() throws Exception {
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(get(managementPort, "/actuator/prometheus").statusCode()).isEqualTo(200);
+        assertThat(get(managementPort, "/actuator/health").statusCode()).isEqualTo(200);
+
+        assertThat(get(serverPort, "/actuator/prometheus").statusCode()).isNotEqualTo(200);
+        assertThat(get(serverPort, "/actuator/prometheus").body()).doesNotContain("app_logins_total");
+    }
+
+    @Test
+    void otherActuatorEndpointsStillRequireAnAdmin() throws Exception {
+        assertThat(get(managementPort, "/actuator/metrics").statusCode()).isNotEqualTo(200);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ordermanagement.security;
+
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.DeletedUserRepository;
+import com.example.ordermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtRevocationRegistryTest {
+
+    private static final long DAY = 86_400_000L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DeletedUserRepository deletedUserRepository = mock(DeletedUserRepository.class);
+    private final JwtRevocationRegistry registry = new JwtRevocationRegistry(userRepository, deletedUserRepository, DAY);
+
+    @Test
+    void tokenIssuedInTheSameSecondAfterRevocationIsAccepted() {
+        User user = user(1L);
+        registry.revokeTokensIssuedBefore(user, 1_700_000_000_300L);
+
+        // A token issued at ...000.800 carries iat ...000 (seconds)
+        assertThat(registry.isRevoked(1L, new Date(1_700_000_000_000L))).isFalse();
+        assertThat(registry.isRevoked(1L, new Date(1_699_999_999_000L))).isTrue();
+        assertThat(registry.isRevoked(2L, new Date(1_699_999_999_000L))).isFalse();
+        // Persisted with the user
+        assertThat(toEpochMillis(user.getTokensValidAfter())).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void cutoffsOfOtherNodesAreLoadedOnRefresh() {
+        long now = System.currentTimeMillis();
+        LocalDateTime demotedAt = toLocalDateTime(now - 60_000);
+        when(userRepository.findTokenCutoffsAfter(any())).thenReturn(List.<Object[]>of(new Object[] {1L, demotedAt}));
+        when(deletedUserRepository.findUserIdsDeletedAfter(any())).thenReturn(List.of(2L));
+
+        registry.refreshInactiveUsers();
+
+        assertThat(registry.isRevoked(1L, new Date(now - 120_000))).isTrue();
+        assertThat(registry.isRevoked(1L, new Date(now))).isFalse();
+        assertThat(registry.isRevoked(2L, new Date(now))).isTrue();
+        assertThat(registry.isRevoked(3L, new Date(now - 120_000))).isFalse();
+    }
+
+    @Test
+    void refreshKeepsRecentLocalCutoffsAndDropsExpiredOnes() {
+        long now = System.currentTimeMillis();
+        registry.revokeTokensIssuedBefore(user(1L), now);
+        registry.revokeTokensIssuedBefore(user(2L), now - DAY - 60_000);
+        when(userRepository.findTokenCutoffsAfter(any())).thenReturn(List.of());
+        when(deletedUserRepository.findUserIdsDeletedAfter(any())).thenReturn(List.of());
+
+        registry.refreshInactiveUsers();
+
+        // Not committed yet when the refresh queried, but made on this node
+        assertThat(registry.isRevoked(1L, new Date(now - 60_000))).isTrue();
+        // Older than any token that is still valid
+        assertThat(registry.isRevoked(2L, new Date(now - DAY - 120_000))).isFalse();
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(new Date(epochMillis).toInstant(), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.CartResponse;
+import com.example.ordermanagement.model.Cart;
+import com.example.ordermanagement.model.MenuItem;
+import com.example.ordermanagement.model.User;
+import com.example.ordermanagement.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CartStoreTest {
+
+    private static final long CART_ID = 7L;
+
+    private final List<Object[]> cartUpdates = Collections.synchronizedList(new ArrayList<>());
+    private final List<Object[]> itemInserts = Collections.synchronizedList(new ArrayList<>());
+
+    private CartStore store;
+    private User user;
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        Cart cart = new Cart(user);
+        cart.setId(CART_ID);
+
+        menuItem = new MenuItem();
+        menuItem.setId(10L);
+        menuItem.setItemName("Masala Dosa");
+        menuItem.setPrice(new BigDecimal("4.50"));
+
+        CartRepository cartRepository = mock(CartRepository.class);
+        when(cartRepository.findByUserWithItems(any())).thenReturn(Optional.of(cart));
+
+        // Record the cart rows as they would be written, in order
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<Object[]> args = invocation.getArgument(1);
+            if (sql.startsWith("UPDATE carts")) {
+                cartUpdates.addAll(args);
+            } else if (sql.startsWith("INSERT INTO cart_items")) {
+                itemInserts.addAll(args);
+            }
+            return new int[args.size()];
+        });
+
+        store = new CartStore(cartRepository, jdbcTemplate, mock(PlatformTransactionManager.class), 1_800_000);
+    }
+
+    @Test
+    void staleSnapshotIsNotWrittenOverANewerOne() throws Exception {
+        store.addItem(user, menuItem, 1);
+
+        Object writeLock = ReflectionTestUtils.getField(store, "writeLock");
+        Thread staleFlush;
+        synchronized (writeLock) {
+            // Snapshot version 1, then wait for the writer lock
+            staleFlush = new Thread(() -> store.flush(user.getId()));
+            staleFlush.start();
+            while (staleFlush.getState() != Thread.State.BLOCKED) {
+                assertThat(staleFlush.isAlive()).isTrue();
+                Thread.onSpinWait();
+            }
+
+            // Version 2 is snapshotted and written first
+            store.addItem(user, menuItem, 1);
+            store.flush(user.getId());
+        }
+        staleFlush.join(5_000);
+
+        assertThat(cartUpdates).hasSize(1);
+        assertThat(totalItems(cartUpdates.get(0))).isEqualTo(2);
+
+        // The cart is clean at version 2, so the next cycle has nothing to write
+        store.flushDirtyCarts();
+        assertThat(cartUpdates).hasSize(1);
+    }
+
+    @Test
+    void flushSnapshotTakenBeforeCheckoutDoesNotRestoreTheOrderedLines() throws Exception {
+        store.addItem(user, menuItem, 2);
+
+        Object writeLock = ReflectionTestUtils.getField(store, "writeLock");
+        Thread staleFlush;
+        synchronized (writeLock) {
+            // Snapshot of the full cart, then wait for the writer lock
+            staleFlush = new Thread(() -> store.flush(user.getId()));
+            staleFlush.start();
+            while (staleFlush.getState() != Thread.State.BLOCKED) {
+                assertThat(staleFlush.isAlive()).isTrue();
+                Thread.onSpinWait();
+            }
+
+            Integer ordered = store.checkout(user, CartResponse::getTotalItems);
+            assertThat(ordered).isEqualTo(2);
+        }
+        staleFlush.join(5_000);
+
+        assertThat(itemInserts).isEmpty();
+        assertThat(cartUpdates).isEmpty();
+
+        // The checkout wrote the empty cart, so there is nothing left to flush
+        store.flushDirtyCarts();
+        assertThat(cartUpdates).isEmpty();
+        assertThat(store.getCart(user).getTotalItems()).isZero();
+    }
+
+    @Test
+    void mutationsSinceTheLastFlushAreCoalesced() {
+        store.addItem(user, menuItem, 1);
+        store.addItem(user, menuItem, 2);
+        store.updateQuantity(user, menuItem.getId(), 5);
+
+        store.flushDirtyCarts();
+        store.flushDirtyCarts();
+
+        assertThat(cartUpdates).hasSize(1);
+        assertThat(totalItems(cartUpdates.get(0))).isEqualTo(5);
+        assertThat(cartUpdates.get(0)[0]).isEqualTo(new BigDecimal("22.50"));
+    }
+
+    // UPDATE carts SET total_amount = ?, total_items = ?, updated_at = ? WHERE id = ?
+    private static int totalItems(Object[] update) {
+        assertThat(update[3]).isEqualTo(CART_ID);
+        return (Integer) update[1];
+    }
+}
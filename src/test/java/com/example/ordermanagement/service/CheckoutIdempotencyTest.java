@@ -0,0 +1,135 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.model.Order;
+import com.example.ordermanagement.repository.CheckoutRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CheckoutIdempotencyTest {
+
+    private static final long USER_ID = 3L;
+
+    private final CheckoutRequestRepository checkoutRequestRepository = mock(CheckoutRequestRepository.class);
+    private final CheckoutIdempotency idempotency = new CheckoutIdempotency(checkoutRequestRepository, 100, 86_400_000);
+    private final AtomicInteger checkouts = new AtomicInteger();
+
+    @Test
+    void retryWithTheSameKeyReplaysTheOrder() {
+        Order first = idempotency.execute(USER_ID, "key-1", checkout(order(1L)));
+        Order retry = idempotency.execute(USER_ID, "key-1", checkout(order(2L)));
+
+        assertThat(retry).isSameAs(first);
+        assertThat(checkouts).hasValue(1);
+
+        // Keys are per user
+        assertThat(idempotency.execute(4L, "key-1", checkout(order(3L))).getId()).isEqualTo(3L);
+        assertThat(checkouts).hasValue(2);
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCheckOutOnce() throws Exception {
+        int requests = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Order> slowCheckout = () -> {
+            checkouts.incrementAndGet();
+            try {
+                assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return order(1L);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Order>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> idempotency.execute(USER_ID, "key-1", slowCheckout)));
+            }
+            // Let the retries pile up behind the running checkout before it completes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Order> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(checkouts).hasValue(1);
+    }
+
+    @Test
+    void keyRecordedOutsideTheWindowIsReplayedFromTheTable() {
+        // Another node or an earlier run recorded the key
+        Order recorded = order(1L);
+        when(checkoutRequestRepository.findOrderByUserIdAndKey(USER_ID, "key-1")).thenReturn(Optional.of(recorded));
+
+        assertThat(idempotency.execute(USER_ID, "key-1", checkout(order(2L)))).isSameAs(recorded);
+        assertThat(checkouts).hasValue(0);
+    }
+
+    @Test
+    void losingARaceOnTheUniqueKeyReturnsTheWinnersOrder() {
+        Order winner = order(1L);
+        when(checkoutRequestRepository.findOrderByUserIdAndKey(USER_ID, "key-1"))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+
+        Order order = idempotency.execute(USER_ID, "key-1", () -> {
+            checkouts.incrementAndGet();
+            throw new DataIntegrityViolationException("uk_checkout_requests_user_key");
+        });
+
+        assertThat(order).isSameAs(winner);
+    }
+
+    @Test
+    void failedCheckoutIsNotRemembered() {
+        assertThatThrownBy(() -> idempotency.execute(USER_ID, "key-1", () -> {
+            checkouts.incrementAndGet();
+            throw new RuntimeException("Cart is empty");
+        })).hasMessage("Cart is empty");
+
+        assertThat(idempotency.execute(USER_ID, "key-1", checkout(order(1L))).getId()).isEqualTo(1L);
+        assertThat(checkouts).hasValue(2);
+    }
+
+    @Test
+    void rejectsOverlongKeys() {
+        String key = "k".repeat(CheckoutIdempotency.MAX_KEY_LENGTH + 1);
+
+        assertThatThrownBy(() -> idempotency.execute(USER_ID, key, checkout(order(1L))))
+                .hasMessage("Idempotency key must be at most 100 characters");
+        assertThat(checkouts).hasValue(0);
+    }
+
+    private Supplier<Order> checkout(Order order) {
+        return () -> {
+            checkouts.incrementAndGet();
+            return order;
+        };
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        return order;
+    }
+}
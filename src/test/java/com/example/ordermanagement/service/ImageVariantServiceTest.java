@@ -0,0 +1,122 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.config.FileUploadConfig;
+import com.example.ordermanagement.model.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileUploadConfig config;
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new FileUploadConfig();
+        ReflectionTestUtils.setField(config, "uploadDir", uploadDir.toString());
+        service = new ImageVariantService(config, 1, 10, 0.8f, 400 * 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void generatesVariantsOfImagesWithinThePixelLimit() throws Exception {
+        writeImage("small.png", 400, 300);
+
+        service.generateVariants("/uploads/small.png");
+
+        awaitCount(service::getGeneratedCount);
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertThat(uploadDir.resolve(variant.fileNameFor("small.png"))).exists();
+        }
+    }
+
+    @Test
+    void skipsImagesAboveThePixelLimit() throws Exception {
+        writeImage("large.png", 401, 300);
+
+        service.generateVariants("/uploads/large.png");
+
+        awaitCount(service::getOversizedCount);
+        assertThat(service.getFailedCount()).isZero();
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertThat(uploadDir.resolve(variant.fileNameFor("large.png"))).doesNotExist();
+        }
+    }
+
+    @Test
+    void startupScanWaitsForRoomInTheQueue() throws Exception {
+        service.shutdown();
+        service = new ImageVariantService(config, 1, 1, 0.8f, 400 * 300);
+        for (int i = 0; i < 20; i++) {
+            writeImage("image-" + i + ".png", 40, 30);
+        }
+
+        service.scanForMissingVariants();
+
+        awaitCount(service::getGeneratedCount, 20);
+        assertThat(service.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void originalsThatCannotGetVariantsAreMarkedAndNotReadAgain() throws Exception {
+        writeImage("large.png", 401, 300);
+        Files.write(uploadDir.resolve("photo.webp"), new byte[] {'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'});
+
+        service.scanForMissingVariants();
+
+        awaitFile(uploadDir.resolve(ImageVariant.noVariantsMarkerFor("large.png")));
+        awaitFile(uploadDir.resolve(ImageVariant.noVariantsMarkerFor("photo.webp")));
+
+        // A restart finds nothing to do
+        service.scanForMissingVariants();
+        assertThat(service.getQueueSize()).isZero();
+        Thread.sleep(100);
+        assertThat(service.getOversizedCount()).isEqualTo(1);
+
+        // Deleting the upload removes its marker
+        service.deleteVariants("/uploads/large.png");
+        assertThat(uploadDir.resolve(ImageVariant.noVariantsMarkerFor("large.png"))).doesNotExist();
+    }
+
+    private void writeImage(String name, int width, int height) throws Exception {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", uploadDir.resolve(name).toFile());
+    }
+
+    private static void awaitCount(LongSupplier count) throws InterruptedException {
+        awaitCount(count, 1);
+    }
+
+    private static void awaitCount(LongSupplier count, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (count.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count.getAsLong()).isEqualTo(expected);
+    }
+
+    private static void awaitFile(Path file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(file).exists();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class KitchenSchedulerTest {
+
+    private static final long SHOP_ID = 5L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final KitchenScheduler scheduler = new KitchenScheduler(orderRepository, 15, 4);
+
+    @Test
+    void largerTicketsTakeOneRoundPerStationLoad() {
+        scheduler.accept(1L, List.of(ticket(SHOP_ID, 2, 10, 1)));
+        scheduler.accept(2L, List.of(ticket(SHOP_ID, 2, 10, 20)));
+        scheduler.accept(3L, List.of(ticket(SHOP_ID, 2, 10, 4)));
+
+        List<KitchenScheduler.TicketView> queue = scheduler.getQueue(SHOP_ID);
+        assertThat(queue).extracting(KitchenScheduler.TicketView::getOrderId).containsExactly(1L, 2L, 3L);
+        // 20 items at 4 per station are five rounds of 10 minutes
+        assertThat(queue).extracting(KitchenScheduler.TicketView::getEtaMinutes).containsExactly(10L, 50L, 20L);
+    }
+
+    @Test
+    void queueIsOnlyReadAndNeverWritesStatuses() {
+        scheduler.accept(1L, List.of(ticket(SHOP_ID, 1, 10, 1)));
+        when(orderRepository.findIdsWithStatus(anyCollection(), anyCollection())).thenReturn(List.of(1L));
+
+        scheduler.removeClosedOrders();
+
+        verify(orderRepository).findIdsWithStatus(anyCollection(), anyCollection());
+        verifyNoMoreInteractions(orderRepository);
+        assertThat(scheduler.getQueue(SHOP_ID)).extracting(KitchenScheduler.TicketView::getStatus)
+                .containsExactly("Preparing");
+    }
+
+    @Test
+    void closedOrdersAreDroppedAndLaterTicketsMoveUp() {
+        scheduler.accept(1L, List.of(ticket(SHOP_ID, 1, 10, 1)));
+        scheduler.accept(2L, List.of(ticket(SHOP_ID, 1, 10, 1)));
+        assertThat(scheduler.getQueue(SHOP_ID)).extracting(KitchenScheduler.TicketView::getStatus)
+                .containsExactly("Preparing", "Queued");
+
+        // The shop moved order 1 on
+        when(orderRepository.findIdsWithStatus(anyCollection(), anyCollection())).thenReturn(List.of(2L));
+        scheduler.removeClosedOrders();
+
+        List<KitchenScheduler.TicketView> queue = scheduler.getQueue(SHOP_ID);
+        assertThat(queue).extracting(KitchenScheduler.TicketView::getOrderId).containsExactly(2L);
+        assertThat(queue.get(0).getStatus()).isEqualTo("Preparing");
+        assertThat(queue.get(0).getEtaMinutes()).isEqualTo(10);
+    }
+
+    @Test
+    void openOrdersAreRequeuedOnStartupInTheOrderTheyWerePlaced() {
+        LocalDateTime now = LocalDateTime.now();
+        when(orderRepository.findLinesOfOrdersWithStatus(any())).thenReturn(List.of(
+                new Object[] {7L, SHOP_ID, 1, 30, 2, now.minusMinutes(40)},
+                new Object[] {7L, SHOP_ID, 1, 10, 1, now.minusMinutes(40)},
+                new Object[] {8L, SHOP_ID, 1, null, 1, now.minusMinutes(5)},
+                new Object[] {8L, 6L, 2, 10, 1, now.minusMinutes(5)}));
+
+        scheduler.requeueOpenOrders();
+        // Checkout of a re-queued order racing the startup does not queue it twice
+        scheduler.accept(8L, List.of(ticket(SHOP_ID, 1, 10, 1)));
+
+        List<KitchenScheduler.TicketView> queue = scheduler.getQueue(SHOP_ID);
+        assertThat(queue).extracting(KitchenScheduler.TicketView::getOrderId).containsExactly(7L, 8L);
+        // Order 7 was estimated ready 10 minutes ago and is still open
+        assertThat(queue.get(0).getStatus()).isEqualTo("Due");
+        assertThat(queue.get(0).getEtaMinutes()).isZero();
+        // Order 8 started when it was placed, after 7 had been estimated ready, with the default 15 minutes
+        assertThat(queue.get(1).getStatus()).isEqualTo("Preparing");
+        assertThat(queue.get(1).getEtaMinutes()).isEqualTo(10);
+        assertThat(scheduler.getQueue(6L)).extracting(KitchenScheduler.TicketView::getOrderId).containsExactly(8L);
+    }
+
+    private static KitchenScheduler.TicketRequest ticket(Long shopId, int capacity, int prepMinutes, int quantity) {
+        KitchenScheduler.TicketRequest request = new KitchenScheduler.TicketRequest(shopId, capacity);
+        request.addLine(prepMinutes, quantity);
+        return request;
+    }
+}
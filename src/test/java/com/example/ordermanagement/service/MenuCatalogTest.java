@@ -0,0 +1,62 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.MenuItemResponse;
+import com.example.ordermanagement.model.MenuCategory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuCatalogTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final MenuCatalog catalog = new MenuCatalog();
+
+    @Test
+    void changesCommittedWhileTheLoadQueryRunsAreReplayed() {
+        catalog.load(() -> {
+            // Committed after the query read its rows
+            catalog.upsert(item(1L, "Renamed", T0.plusMinutes(1)));
+            catalog.upsert(item(3L, "Added", T0.plusMinutes(1)));
+            catalog.remove(2L);
+            return List.of(item(1L, "Original", T0), item(2L, "Deleted", T0));
+        });
+
+        MenuCatalog.Snapshot snapshot = catalog.getSnapshot();
+        assertThat(snapshot.getItems()).extracting(MenuItemResponse::getItemName).containsExactly("Renamed", "Added");
+    }
+
+    @Test
+    void changesRecordedDuringALoadStillApplyToTheCurrentSnapshot() {
+        catalog.load(() -> List.of(item(1L, "Original", T0)));
+
+        catalog.load(() -> {
+            catalog.upsert(item(1L, "Renamed", T0.plusMinutes(1)));
+            // Readers see the change before the reload finishes
+            assertThat(catalog.getSnapshot().getItem(1L).getItemName()).isEqualTo("Renamed");
+            return List.of(item(1L, "Original", T0));
+        });
+
+        assertThat(catalog.getSnapshot().getItem(1L).getItemName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void olderUpdateArrivingLateDoesNotOverwriteANewerOne() {
+        catalog.load(() -> List.of(item(1L, "Original", T0)));
+
+        catalog.upsert(item(1L, "Second", T0.plusMinutes(2)));
+        catalog.upsert(item(1L, "First", T0.plusMinutes(1)));
+        catalog.upsertAll(List.of(item(1L, "Original", T0)));
+
+        assertThat(catalog.getSnapshot().getItem(1L).getItemName()).isEqualTo("Second");
+    }
+
+    private static MenuItemResponse item(Long id, String name, LocalDateTime updatedAt) {
+        return new MenuItemResponse(id, name, null, BigDecimal.TEN, MenuCategory.MAIN_COURSE, true, false, false,
+                10, null, T0, updatedAt, 1L, "Shop");
+    }
+}
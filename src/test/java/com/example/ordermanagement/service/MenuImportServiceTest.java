@@ -0,0 +1,225 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.MenuItemResponse;
+import com.example.ordermanagement.model.Shop;
+import com.example.ordermanagement.model.ShopType;
+import com.example.ordermanagement.repository.ShopRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MenuImportServiceTest {
+
+    private static final String HEADER = "itemName,description,price,category,isVegetarian,preparationTimeMinutes\n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    // Small batches and row limit so both are crossed by a few rows
+    private MenuImportService importService;
+    private Long shopId;
+
+    @BeforeEach
+    void setUp() {
+        importService = new MenuImportService(jdbcTemplate, transactionManager, objectMapper, validator, menuCatalog,
+                2, 10, 100);
+
+        shopId = createShop();
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() {
+        MenuImportService.ImportResult result = importCsv(
+                "﻿" + HEADER +
+                "Masala Dosa,\"Crisp, with chutney\",4.50,Main Course,yes,15\n" +
+                "\n" +
+                "Lassi,\"Sweet \"\"mango\"\"\nchilled\",2.00,BEVERAGE,true,\n");
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isZero();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT item_name, description, price, category, is_vegetarian FROM menu_items WHERE shop_id = ? ORDER BY item_name",
+                shopId))
+                .extracting(row -> row.get("ITEM_NAME"), row -> row.get("DESCRIPTION"), row -> row.get("PRICE"),
+                        row -> row.get("CATEGORY"), row -> row.get("IS_VEGETARIAN"))
+                .containsExactly(
+                        tuple("Lassi", "Sweet \"mango\"\nchilled", new BigDecimal("2.00"), "BEVERAGE", true),
+                        tuple("Masala Dosa", "Crisp, with chutney", new BigDecimal("4.50"), "MAIN_COURSE", true));
+
+        // The catalog gets the generated ids of the batch
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, item_name FROM menu_items WHERE shop_id = ?", shopId)) {
+            assertThat(menuCatalog.getSnapshot().getItem(((Number) row.get("ID")).longValue()))
+                    .extracting(MenuItemResponse::getItemName, MenuItemResponse::getShopId)
+                    .containsExactly(row.get("ITEM_NAME"), shopId);
+        }
+    }
+
+    @Test
+    void importsNdjsonAndReportsInvalidLines() {
+        String ndjson =
+                "{\"itemName\":\"Idli\",\"price\":3,\"category\":\"APPETIZER\",\"is_vegetarian\":true}\n" +
+                "\n" +
+                "{\"itemName\":\"Vada\",\"price\":\n" +
+                "[1, 2]\n" +
+                "{\"item-name\":\"Upma\",\"price\":\"2.5\",\"category\":\"Appetizer\"}\n";
+        MenuImportService.ImportResult result = importService.importMenuItems(shopId,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MenuImportService.Format.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(MenuImportService.RowError::getLine, MenuImportService.RowError::getItemName)
+                .containsExactly(tuple(3, null), tuple(4, null));
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Invalid JSON");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Expected a JSON object");
+        assertThat(itemNames()).containsExactly("Idli", "Upma");
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        importCsv(HEADER + "Masala Dosa,,4.50,MAIN_COURSE,,\n");
+
+        MenuImportService.ImportResult result = importCsv(HEADER +
+                "Masala Dosa,,5.00,MAIN_COURSE,,\n" +
+                "Idli,,3.00,APPETIZER,,\n" +
+                "Idli,,3.50,APPETIZER,,\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors())
+                .extracting(MenuImportService.RowError::getLine, MenuImportService.RowError::getItemName,
+                        MenuImportService.RowError::getMessage)
+                .containsExactly(
+                        tuple(2, "Masala Dosa", "Menu item with name 'Masala Dosa' already exists in this shop"),
+                        tuple(4, "Idli", "Menu item with name 'Idli' already exists in this shop"));
+        assertThat(itemNames()).containsExactly("Idli", "Masala Dosa");
+    }
+
+    @Test
+    void reportsInvalidRowsWithTheirLine() {
+        MenuImportService.ImportResult result = importCsv(HEADER +
+                "Idli,,,APPETIZER,,\n" +
+                "Vada,,abc,APPETIZER,,\n" +
+                "Upma,,2.00,Brunch,,\n" +
+                "Poha,,2.00,APPETIZER,maybe,\n" +
+                "Dosa,,2.00,APPETIZER,,10,extra\n" +
+                "Uttapam,,2.00,APPETIZER,,400\n" +
+                "Pongal,,2.00,APPETIZER,,\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(6);
+        assertThat(result.getErrors())
+                .extracting(MenuImportService.RowError::getLine, MenuImportService.RowError::getMessage)
+                .containsExactly(
+                        tuple(2, "Price is required"),
+                        tuple(3, "Invalid price: abc"),
+                        tuple(4, "Unknown category: Brunch"),
+                        tuple(5, "Invalid yes/no value: maybe"),
+                        tuple(6, "Expected 6 columns but found 7"),
+                        tuple(7, "Preparation time cannot exceed 300 minutes"));
+        assertThat(itemNames()).containsExactly("Pongal");
+    }
+
+    @Test
+    void unterminatedQuoteStopsTheImportAndKeepsTheRowsBeforeIt() {
+        MenuImportService.ImportResult result = importCsv(HEADER +
+                "Idli,,3.00,APPETIZER,,\n" +
+                "Vada,,3.00,APPETIZER,,\n" +
+                "Upma,,3.00,APPETIZER,,\n" +
+                "Poha,\"never closed,2.00,APPETIZER,,\n" +
+                "Dosa,,2.00,APPETIZER,,\n");
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.getFailure()).isEqualTo("Unterminated quoted field starting on line 5");
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(itemNames()).containsExactly("Idli", "Upma", "Vada");
+    }
+
+    @Test
+    void stopsAtTheRowLimit() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 12; i++) {
+            csv.append("Item ").append(i).append(",,1.00,APPETIZER,,\n");
+        }
+        MenuImportService.ImportResult result = importCsv(csv.toString());
+
+        assertThat(result.getFailure()).isEqualTo("Imports are limited to 10 rows; stopped at line 12");
+        assertThat(result.getImported()).isEqualTo(10);
+        assertThat(itemNames()).hasSize(10).doesNotContain("Item 11", "Item 12");
+    }
+
+    @Test
+    void importsTenThousandItemsInUnderTwoSeconds() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 10_000; i++) {
+            csv.append("Item ").append(i).append(",\"Description of item ").append(i)
+                    .append("\",").append(i % 50 + 1).append(".25,MAIN_COURSE,").append(i % 2 == 0).append(",20\n");
+        }
+        byte[] file = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Measured warm, as on a running server; the first import in a fresh JVM is mostly JIT compilation
+        menuImportService.importMenuItems(createShop(), new ByteArrayInputStream(file), MenuImportService.Format.CSV);
+
+        long start = System.nanoTime();
+        MenuImportService.ImportResult result = menuImportService.importMenuItems(shopId,
+                new ByteArrayInputStream(file), MenuImportService.Format.CSV);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.getImported()).isEqualTo(10_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM menu_items WHERE shop_id = ?", Integer.class, shopId))
+                .isEqualTo(10_000);
+        assertThat(millis).isLessThan(2_000);
+    }
+
+    private Long createShop() {
+        Shop shop = new Shop("Import Test " + UUID.randomUUID(), "Owner", UUID.randomUUID() + "@example.com",
+                "9999999999", "Pune", "Maharashtra", "India", "411001", null, ShopType.RESTAURANT);
+        shop.setAddress("1 Test Street");
+        return shopRepository.save(shop).getId();
+    }
+
+    private MenuImportService.ImportResult importCsv(String csv) {
+        return importService.importMenuItems(shopId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MenuImportService.Format.CSV);
+    }
+
+    private List<String> itemNames() {
+        return jdbcTemplate.queryForList("SELECT item_name FROM menu_items WHERE shop_id = ? ORDER BY item_name",
+                String.class, shopId);
+    }
+}
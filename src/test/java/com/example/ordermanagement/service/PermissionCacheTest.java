@@ -0,0 +1,135 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.repository.PermissionRepository;
+import com.example.ordermanagement.repository.UserPermissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermissionCacheTest {
+
+    private static final long USER_ID = 2L;
+
+    private final UserPermissionRepository userPermissionRepository = mock(UserPermissionRepository.class);
+    private final PermissionRepository permissionRepository = mock(PermissionRepository.class);
+    private final PermissionCache cache = new PermissionCache(userPermissionRepository, permissionRepository);
+
+    private final List<Object[]> permissions = new ArrayList<>();
+    private final List<Object[]> grants = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        permissions.add(new Object[]{1L, "SHOP_READ", "SHOP", "READ"});
+        permissions.add(new Object[]{2L, "SHOP_UPDATE", "SHOP", "UPDATE"});
+        // Copies, so a change after compilation is only seen by the next compilation
+        when(permissionRepository.findActivePermissionKeys()).thenAnswer(invocation -> new ArrayList<>(permissions));
+        when(userPermissionRepository.findEffectiveGrantsByUserId(eq(USER_ID), any()))
+                .thenAnswer(invocation -> new ArrayList<>(grants));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void grantIsSeenAfterTheUserIsInvalidated() {
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isFalse();
+
+        grants.add(grant(2L, null));
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isFalse();
+
+        cache.invalidateUser(USER_ID);
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isTrue();
+        assertThat(cache.hasPermissionByName(USER_ID, "SHOP_UPDATE")).isTrue();
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "READ")).isFalse();
+        verify(userPermissionRepository, times(2)).findEffectiveGrantsByUserId(eq(USER_ID), any());
+    }
+
+    @Test
+    void revokeIsSeenAfterTheUserIsInvalidated() {
+        grants.add(grant(1L, null));
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "READ")).isTrue();
+
+        grants.clear();
+        cache.invalidateUser(USER_ID);
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "READ")).isFalse();
+    }
+
+    @Test
+    void newPermissionIsIndexedAfterInvalidateAll() {
+        grants.add(grant(3L, null));
+        assertThat(cache.hasPermissionByName(USER_ID, "SHOP_DELETE")).isFalse();
+
+        permissions.add(new Object[]{3L, "SHOP_DELETE", "SHOP", "DELETE"});
+        assertThat(cache.hasPermissionByName(USER_ID, "SHOP_DELETE")).isFalse();
+
+        cache.invalidateAll();
+        assertThat(cache.hasPermissionByName(USER_ID, "SHOP_DELETE")).isTrue();
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "DELETE")).isTrue();
+        verify(permissionRepository, times(2)).findActivePermissionKeys();
+    }
+
+    @Test
+    void setCompiledInsideARolledBackTransactionIsDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        // The grant is visible inside the transaction and compiled into the cache
+        grants.add(grant(2L, null));
+        cache.invalidateUser(USER_ID);
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isTrue();
+
+        // Rollback
+        grants.clear();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isFalse();
+    }
+
+    @Test
+    void setIsRecompiledOnceAGrantExpires() {
+        grants.add(grant(2L, LocalDateTime.now().minusSeconds(1)));
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isTrue();
+
+        // The repository no longer returns the expired grant
+        grants.clear();
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isFalse();
+    }
+
+    @Test
+    void setCompiledWhileTheUserIsInvalidatedIsNotCached() {
+        // A grant commits and invalidates the user while the compilation is querying the old grants
+        when(userPermissionRepository.findEffectiveGrantsByUserId(eq(USER_ID), any())).thenAnswer(invocation -> {
+            List<Object[]> compiled = new ArrayList<>(grants);
+            grants.add(grant(2L, null));
+            cache.invalidateUser(USER_ID);
+            return compiled;
+        }).thenAnswer(invocation -> new ArrayList<>(grants));
+
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isFalse();
+        assertThat(cache.hasPermission(USER_ID, "SHOP", "UPDATE")).isTrue();
+        verify(userPermissionRepository, times(2)).findEffectiveGrantsByUserId(eq(USER_ID), any());
+    }
+
+    private static Object[] grant(Long permissionId, LocalDateTime expiresAt) {
+        return new Object[]{permissionId, expiresAt};
+    }
+}
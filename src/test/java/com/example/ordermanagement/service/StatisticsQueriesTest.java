@@ -0,0 +1,96 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.config.QueryCounter;
+import com.example.ordermanagement.model.Role;
+import com.example.ordermanagement.model.ShopStatus;
+import com.example.ordermanagement.model.ShopType;
+import com.example.ordermanagement.repository.CartItemRepository;
+import com.example.ordermanagement.repository.CartRepository;
+import com.example.ordermanagement.repository.ShopRepository;
+import com.example.ordermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatisticsQueriesTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Test
+    void userStatsAreOneCountedQuery() {
+        QueryCounter.RequestQueries queries = QueryCounter.start();
+        UserService.UserStats stats;
+        try {
+            stats = userService.getUserStats();
+        } finally {
+            QueryCounter.stop();
+        }
+
+        assertThat(queries.getStatements()).isEqualTo(1);
+        assertThat(stats.getTotalUsers()).isEqualTo(userRepository.count()).isPositive();
+        assertThat(stats.getActiveUsers()).isEqualTo(userRepository.countByIsActiveTrue());
+        assertThat(stats.getAdminUsers()).isEqualTo(userRepository.countByRole(Role.ADMIN));
+        assertThat(stats.getShopUsers()).isEqualTo(userRepository.countByRole(Role.SHOP));
+        assertThat(stats.getCustomerUsers()).isEqualTo(userRepository.countByRole(Role.CUSTOMER));
+    }
+
+    @Test
+    void cartStatisticsAreOneCountedQuery() {
+        QueryCounter.RequestQueries queries = QueryCounter.start();
+        CartService.CartStatistics stats;
+        try {
+            stats = cartService.getCartStatistics();
+        } finally {
+            QueryCounter.stop();
+        }
+
+        assertThat(queries.getStatements()).isEqualTo(1);
+        assertThat(stats.getTotalCarts()).isEqualTo(cartRepository.countTotalCarts());
+        assertThat(stats.getActiveCarts()).isEqualTo(cartRepository.countActiveCarts());
+        assertThat(stats.getTotalCartItems()).isEqualTo(cartItemRepository.countTotalCartItems());
+    }
+
+    @Test
+    void shopStatsAreOneCountedQuery() {
+        QueryCounter.RequestQueries queries = QueryCounter.start();
+        ShopService.ShopStats stats;
+        try {
+            stats = shopService.getShopStats();
+        } finally {
+            QueryCounter.stop();
+        }
+
+        assertThat(queries.getStatements()).isEqualTo(1);
+        assertThat(stats.getTotalShops()).isEqualTo(shopRepository.count());
+        for (ShopStatus status : ShopStatus.values()) {
+            assertThat(stats.getShopsByStatus()).containsEntry(status, shopRepository.countByStatus(status));
+        }
+        for (ShopType type : ShopType.values()) {
+            assertThat(stats.getShopsByType()).containsEntry(type, shopRepository.countByShopType(type));
+        }
+    }
+}